@@ -0,0 +1,162 @@
+package com.mr.timeindicatorview;
+
+import android.os.Build;
+import android.view.Display;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.ViewTreeLifecycleOwner;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 视图与全局时钟之间的订阅状态, {@link TimeIndicatorView} 和 {@link IndicatorStrip} 共用
+ * <p>
+ * 记录视图是否附加到窗口, 是否可见(7.0 以下由窗口可见性和 isShown() 推算)以及所在页面是否处于前台,
+ * 任一状态变化时通知视图重新订阅. 显示毫秒时跟随屏幕刷新订阅, 可以限制最高帧率.
+ */
+final class ClockBinding {
+
+    private final View mView;
+
+    /**
+     * 订阅状态变化时调用, 由视图决定是否重新订阅
+     */
+    private final Runnable mOnStateChanged;
+
+    private final TimeIndicatorClock.Subscription mSubscription;
+
+    private boolean mAggregatedVisible = true;
+
+    private boolean mLifecycleStarted = true;
+
+    private LifecycleOwner mLifecycleOwner;
+
+    /**
+     * 显示毫秒时的最高帧率, 0 表示跟随屏幕刷新率
+     */
+    private int maxFrameRate;
+
+    /**
+     * 屏幕一帧的毫秒数, 向上取整
+     */
+    private long mFramePeriod = 17;
+
+    private final LifecycleEventObserver mLifecycleObserver = new LifecycleEventObserver() {
+        @Override
+        public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+            boolean started = source.getLifecycle().getCurrentState()
+                    .isAtLeast(Lifecycle.State.STARTED);
+            if (started != mLifecycleStarted) {
+                mLifecycleStarted = started;
+                mOnStateChanged.run();
+            }
+        }
+    };
+
+    /**
+     * @param subscriber 由视图强引用, 时钟只弱引用它
+     */
+    ClockBinding(View view, TimeIndicatorClock.Subscriber subscriber, Runnable onStateChanged) {
+        mView = view;
+        mOnStateChanged = onStateChanged;
+        mSubscription = new TimeIndicatorClock.Subscription(subscriber);
+    }
+
+    /**
+     * 已添加到窗口, 可见且页面处于前台
+     */
+    boolean isActive() {
+        return mView.isAttachedToWindow() && mAggregatedVisible && mLifecycleStarted;
+    }
+
+    void setMaxFrameRate(int fps) {
+        maxFrameRate = Math.max(0, fps);
+    }
+
+    int getMaxFrameRate() {
+        return maxFrameRate;
+    }
+
+    /**
+     * 帧率上限对应的最小刷新间隔, 0 表示每一帧都刷新
+     */
+    long getMinFrameInterval() {
+        return maxFrameRate > 0 ? 1000 / maxFrameRate : 0;
+    }
+
+    /**
+     * 最近一次跟随屏幕刷新订阅时屏幕一帧的毫秒数
+     */
+    long getFramePeriod() {
+        return mFramePeriod;
+    }
+
+    /**
+     * 订阅全局时钟, frameSynced 时跟随屏幕刷新并按帧率上限限制间隔
+     *
+     * @param delay       距离下一次刷新的毫秒数
+     * @param granularity 按固定间隔订阅时的刷新粒度
+     */
+    void schedule(long delay, long granularity, boolean frameSynced) {
+        if (frameSynced) {
+            Display display = mView.getDisplay();
+            if (display != null && display.getRefreshRate() > 0) {
+                mFramePeriod = (long) Math.ceil(1000f / display.getRefreshRate());
+            }
+            TimeIndicatorClock.getInstance().scheduleFrames(mSubscription, getMinFrameInterval(), delay);
+        } else {
+            TimeIndicatorClock.getInstance().schedule(mSubscription, granularity, delay);
+        }
+    }
+
+    void cancel() {
+        TimeIndicatorClock.getInstance().cancel(mSubscription);
+    }
+
+    void onAttachedToWindow() {
+        mLifecycleOwner = ViewTreeLifecycleOwner.get(mView);
+        if (mLifecycleOwner != null) {
+            //添加时会同步回调当前状态
+            mLifecycleOwner.getLifecycle().addObserver(mLifecycleObserver);
+        }
+    }
+
+    void onDetachedFromWindow() {
+        if (mLifecycleOwner != null) {
+            mLifecycleOwner.getLifecycle().removeObserver(mLifecycleObserver);
+            mLifecycleOwner = null;
+        }
+        mLifecycleStarted = true;
+
+        //此时 isAttachedToWindow() 仍为 true, 直接取消订阅
+        cancel();
+    }
+
+    void onVisibilityAggregated(boolean isVisible) {
+        setAggregatedVisible(isVisible);
+    }
+
+    void onWindowVisibilityChanged(int visibility) {
+        //7.0 以下没有 onVisibilityAggregated
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            setAggregatedVisible(visibility == View.VISIBLE && mView.isShown());
+        }
+    }
+
+    void onVisibilityChanged() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            setAggregatedVisible(mView.getWindowVisibility() == View.VISIBLE && mView.isShown());
+        }
+    }
+
+    private void setAggregatedVisible(boolean visible) {
+        if (mAggregatedVisible != visible) {
+            mAggregatedVisible = visible;
+            mOnStateChanged.run();
+        }
+    }
+}
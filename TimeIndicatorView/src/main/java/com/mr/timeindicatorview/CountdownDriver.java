@@ -0,0 +1,63 @@
+package com.mr.timeindicatorview;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 用全局时钟推进 {@link CountdownRegistry}, 只在下一个截止时间附近唤醒
+ * <p>
+ * 时钟只弱引用订阅者, 使用方需要持有本对象. 只能在主线程使用.
+ */
+public final class CountdownDriver implements TimeIndicatorClock.Subscriber {
+
+    private final CountdownRegistry mRegistry;
+
+    private final TimeIndicatorClock.Subscription mSubscription =
+            new TimeIndicatorClock.Subscription(this);
+
+    private boolean mRunning;
+
+    public CountdownDriver(CountdownRegistry registry) {
+        mRegistry = registry;
+    }
+
+    public CountdownRegistry getRegistry() {
+        return mRegistry;
+    }
+
+    public void start() {
+        mRunning = true;
+        update();
+    }
+
+    public void stop() {
+        mRunning = false;
+        TimeIndicatorClock.getInstance().cancel(mSubscription);
+    }
+
+    /**
+     * 修改 registry 中的截止时间后调用, 重新安排下一次唤醒
+     * <p>
+     * 只计算唤醒时间, 不推进 registry, 到期回调总是在时钟分发中触发, 因此可以在到期回调中调用
+     */
+    public void update() {
+        if (!mRunning) return;
+
+        long delay = mRegistry.nextExpiryDelay(mRegistry.getTimeSource().now());
+        if (delay >= 0) {
+            TimeIndicatorClock.getInstance().schedule(mSubscription, 0, delay);
+        } else {
+            TimeIndicatorClock.getInstance().cancel(mSubscription);
+        }
+    }
+
+    @Override
+    public long onClockTick(long now) {
+        if (!mRunning) return -1;
+
+        TimeSource source = mRegistry.getTimeSource();
+        //默认时间源与全局时钟一致, 直接使用分发的时间戳
+        long time = source == SystemTimeSource.INSTANCE ? now : source.now();
+        mRegistry.advance(time);
+        return mRegistry.nextExpiryDelay(time);
+    }
+}
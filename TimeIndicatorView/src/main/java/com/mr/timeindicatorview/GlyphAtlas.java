@@ -0,0 +1,226 @@
+package com.mr.timeindicatorview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 字形图集
+ * <p>
+ * 把一种文字样式下的 0-9, 负号和用到的后缀字符预先绘制到一张 ALPHA_8 位图中, 绘制时用
+ * {@link Canvas#drawBitmap(Bitmap, Rect, Rect, Paint)} 按源区域贴图, 不再经过文字排版.
+ * 颜色取自绘制时的画笔, 所以同一样式不同颜色的视图共用一张图集. 字形位置取整, 数字在
+ * 最宽数字的格子内居中, 计时过程中像素位置稳定.
+ * <p>
+ * 图集创建后不可修改, 需要新的字符时创建包含全部字符的新图集替换旧的. 与
+ * {@link TextMetricsCache} 一样最多缓存 {@link #MAX_SIZE} 种样式, 最近最少使用的先移除.
+ */
+final class GlyphAtlas {
+
+    /**
+     * 字形四周留出的像素, 容纳斜体和粗体超出前进宽度的部分
+     */
+    private static final int PADDING = 2;
+
+    /**
+     * 下标 0-9 为数字, 10 为负号, 之后为额外字符
+     */
+    private static final int FIXED_GLYPHS = 11;
+
+    private static final int MAX_SIZE = 32;
+
+    /**
+     * 图集强引用自己的度量表, 因此不能用弱引用 key 的缓存, 按数量限制
+     */
+    private static final Map<TextMetricsCache.Metrics, GlyphAtlas> sAtlases =
+            new LinkedHashMap<TextMetricsCache.Metrics, GlyphAtlas>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<TextMetricsCache.Metrics, GlyphAtlas> eldest) {
+                    return size() > MAX_SIZE;
+                }
+            };
+
+    private final TextMetricsCache.Metrics metrics;
+
+    /**
+     * 额外字符, 已排序, 不含数字和负号
+     */
+    private final char[] extraChars;
+
+    private final Bitmap bitmap;
+
+    private final Rect[] sources;
+
+    /**
+     * 每个字形的前进宽度, 取整
+     */
+    private final int[] advances;
+
+    /**
+     * 基线到字形格子顶部的距离
+     */
+    private final int baseline;
+
+    /**
+     * 数字的等宽格子宽度
+     */
+    private final int digitSlot;
+
+    private GlyphAtlas(TextMetricsCache.Metrics metrics, char[] extraChars) {
+        this.metrics = metrics;
+        this.extraChars = extraChars;
+
+        Paint paint = new Paint(metrics.getPaint());
+        paint.setColor(0xFF000000);
+        Paint.FontMetricsInt fm = paint.getFontMetricsInt();
+
+        int count = FIXED_GLYPHS + extraChars.length;
+        sources = new Rect[count];
+        advances = new int[count];
+        baseline = PADDING - fm.top;
+        int height = fm.bottom - fm.top + PADDING * 2;
+
+        char[] glyph = new char[1];
+        int width = 0;
+        for (int i = 0; i < count; i++) {
+            glyph[0] = charAt(i);
+            advances[i] = (int) Math.ceil(paint.measureText(glyph, 0, 1));
+            int cell = advances[i] + PADDING * 2;
+            sources[i] = new Rect(width, 0, width + cell, height);
+            width += cell;
+        }
+        digitSlot = (int) Math.ceil(metrics.getMaxDigitWidth());
+
+        bitmap = Bitmap.createBitmap(Math.max(1, width), Math.max(1, height), Bitmap.Config.ALPHA_8);
+        Canvas canvas = new Canvas(bitmap);
+        for (int i = 0; i < count; i++) {
+            glyph[0] = charAt(i);
+            canvas.drawText(glyph, 0, 1, sources[i].left + PADDING, baseline, paint);
+        }
+    }
+
+    /**
+     * 获取样式对应的图集, 缺少 chars 中的字符时重新创建
+     *
+     * @param chars 除数字外需要的字符, 例如格式中的后缀
+     */
+    static GlyphAtlas obtain(TextMetricsCache.Metrics metrics, CharSequence chars) {
+        synchronized (sAtlases) {
+            GlyphAtlas atlas = sAtlases.get(metrics);
+            char[] current = atlas == null ? new char[0] : atlas.extraChars;
+            char[] merged = mergeChars(current, chars);
+            if (atlas == null || merged != current) {
+                atlas = new GlyphAtlas(metrics, merged);
+                sAtlases.put(metrics, atlas);
+            }
+            return atlas;
+        }
+    }
+
+    /**
+     * 合并额外字符, 结果排序去重, 不含数字和负号
+     *
+     * @return 没有新字符时返回 current 本身
+     */
+    static char[] mergeChars(char[] current, CharSequence chars) {
+        char[] merged = current;
+        for (int i = 0, length = chars.length(); i < length; i++) {
+            char c = chars.charAt(i);
+            if ((c >= '0' && c <= '9') || c == '-') continue;
+            if (Arrays.binarySearch(merged, c) >= 0) continue;
+
+            char[] grown = Arrays.copyOf(merged, merged.length + 1);
+            grown[merged.length] = c;
+            Arrays.sort(grown);
+            merged = grown;
+        }
+        return merged;
+    }
+
+    /**
+     * 字符在图集中的下标, 不存在时返回 -1
+     */
+    int indexOf(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c == '-') return 10;
+        int index = Arrays.binarySearch(extraChars, c);
+        return index < 0 ? -1 : FIXED_GLYPHS + index;
+    }
+
+    private char charAt(int index) {
+        if (index < 10) return (char) ('0' + index);
+        if (index == 10) return '-';
+        return extraChars[index - FIXED_GLYPHS];
+    }
+
+    TextMetricsCache.Metrics getMetrics() {
+        return metrics;
+    }
+
+    int getDigitSlot() {
+        return digitSlot;
+    }
+
+    /**
+     * 字符串的宽度, 图集中没有的字符按 0 计算
+     */
+    int measure(CharSequence text) {
+        int width = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            int index = indexOf(text.charAt(i));
+            if (index >= 0) width += advances[index];
+        }
+        return width;
+    }
+
+    /**
+     * 以 (x, y) 为文字原点和基线绘制一个字符
+     *
+     * @param dst 调用方提供的临时区域, 避免每次绘制创建对象
+     * @return 前进宽度, 图集中没有该字符时返回 -1, 什么都不画
+     */
+    int draw(Canvas canvas, char c, int x, int y, Paint paint, Rect dst) {
+        int index = indexOf(c);
+        if (index < 0) return -1;
+
+        Rect src = sources[index];
+        dst.left = x - PADDING;
+        dst.top = y - baseline;
+        dst.right = dst.left + src.width();
+        dst.bottom = dst.top + src.height();
+        canvas.drawBitmap(bitmap, src, dst, paint);
+        return advances[index];
+    }
+
+    /**
+     * 在 [left, left + 数字格子宽度) 内居中绘制一个数字
+     */
+    void drawDigit(Canvas canvas, char c, int left, int y, Paint paint, Rect dst) {
+        int index = indexOf(c);
+        if (index < 0) return;
+
+        draw(canvas, c, left + (digitSlot - advances[index]) / 2, y, paint, dst);
+    }
+
+    /**
+     * 绘制字符串, 图集中没有的字符退回到 drawText
+     */
+    void drawText(Canvas canvas, String text, int x, int y, Paint paint, Rect dst) {
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            int advance = draw(canvas, c, x, y, paint, dst);
+            if (advance < 0) {
+                canvas.drawText(text, i, i + 1, x, y, paint);
+                advance = (int) Math.ceil(paint.measureText(text, i, i + 1));
+            }
+            x += advance;
+        }
+    }
+}
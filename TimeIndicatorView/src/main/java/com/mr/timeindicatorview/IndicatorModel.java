@@ -0,0 +1,209 @@
+package com.mr.timeindicatorview;
+
+import java.util.List;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 不带视图的时间指示器数据, 由 {@link IndicatorStrip} 统一测量, 刷新和绘制
+ * <p>
+ * 只保存格式, 计时状态和指针文字, 不持有画笔和计时器.
+ */
+public class IndicatorModel {
+
+    private final TimeAnchor mTimeAnchor;
+
+    private final TickScheduler mTickScheduler;
+
+    private TimeDecomposer mTimeDecomposer = new DurationDecomposer();
+
+    /**
+     * 格式对应的节点和位置, 布局参数由所在视图同步
+     */
+    final IndicatorLayout layout = new IndicatorLayout();
+
+    /**
+     * 所在视图, 状态变化时通知它重新布局和刷新
+     */
+    IndicatorStrip strip;
+
+    public IndicatorModel(String pattern) {
+        this(CompiledFormat.compile(pattern), SystemTimeSource.INSTANCE);
+    }
+
+    public IndicatorModel(CompiledFormat format, TimeSource timeSource) {
+        mTimeAnchor = new TimeAnchor(timeSource);
+        mTickScheduler = new TickScheduler(TimeIndicatorView.DEF_MILLIS_IN_FUTURE);
+        mTickScheduler.setDecomposer(mTimeDecomposer);
+        setFormat(format);
+    }
+
+    public CompiledFormat getFormat() {
+        return layout.getFormat();
+    }
+
+    /**
+     * 设置时间格式, 复用已有的节点
+     */
+    public void setFormat(CompiledFormat format) {
+        if (format == layout.getFormat()) return;
+
+        layout.setFormat(format);
+        mTickScheduler.setNodes(layout.getNodes());
+        update(mTimeAnchor.currentTime());
+
+        if (strip != null) strip.onModelLayoutChanged();
+    }
+
+    /**
+     * 设置时间拆分器, 例如 {@link CalendarDecomposer}
+     */
+    public void setTimeDecomposer(TimeDecomposer decomposer) {
+        mTimeDecomposer = decomposer;
+        mTickScheduler.setDecomposer(decomposer);
+        update(mTimeAnchor.currentTime());
+
+        if (strip != null) strip.onModelChanged();
+    }
+
+    public TimeSource getTimeSource() {
+        return mTimeAnchor.getTimeSource();
+    }
+
+    public void setTimeSource(TimeSource timeSource) {
+        mTimeAnchor.setTimeSource(timeSource);
+
+        if (strip != null) strip.onModelChanged();
+    }
+
+    /**
+     * 设置起始时间, 停止计时
+     */
+    public void setStartTime(long time, boolean countdown) {
+        mTimeAnchor.reset(time, countdown);
+        update(time);
+
+        if (strip != null) strip.onModelChanged();
+    }
+
+    /**
+     * 以目标时刻为锚点开始计时, 倒计时显示剩余时间, 否则显示已经过去的时间
+     *
+     * @see TimeIndicatorView#bind(long, CompiledFormat)
+     */
+    public void bind(long targetTime, boolean countdown) {
+        mTimeAnchor.startAt(targetTime, countdown);
+        update(mTimeAnchor.currentTime());
+
+        if (strip != null) strip.onModelChanged();
+    }
+
+    public void start() {
+        mTimeAnchor.start();
+
+        if (strip != null) strip.onModelChanged();
+    }
+
+    public void stop() {
+        mTimeAnchor.stop();
+
+        if (strip != null) strip.onModelChanged();
+    }
+
+    public boolean isRunning() {
+        return mTimeAnchor.isRunning();
+    }
+
+    public boolean isCountdown() {
+        return mTimeAnchor.isCountdown();
+    }
+
+    public long currentTime() {
+        return mTimeAnchor.currentTime();
+    }
+
+    /**
+     * 刷新指针文字, 变化的节点标记为 dirty
+     *
+     * @param now 时间源读数
+     * @return 距离下一次显示变化的毫秒数, 小于0表示不再需要刷新
+     */
+    long onTick(long now) {
+        if (!mTimeAnchor.isRunning()) return -1;
+
+        long time = mTimeAnchor.timeAt(now);
+        if (mTimeAnchor.isCountdown() && time <= 0) {
+            update(0);
+            mTimeAnchor.stop();
+            return -1;
+        }
+
+        update(time);
+        return mTickScheduler.nextDelay(time, mTimeAnchor.isCountdown());
+    }
+
+    long getGranularity() {
+        return mTickScheduler.getGranularity();
+    }
+
+    /**
+     * 所有指示器一起刷新, 使用系统时间源的指示器共用同一个读数
+     *
+     * @param now 系统时间源读数
+     * @return 最近一次显示变化的毫秒数, 有计时中的指示器显示毫秒时返回0(下一帧就会变化),
+     * 小于0表示都不再需要刷新
+     */
+    static long tickAll(List<IndicatorModel> models, long now) {
+        long delay = -1;
+        boolean frameSynced = false;
+        for (int m = 0, count = models.size(); m < count; m++) {
+            IndicatorModel model = models.get(m);
+            TimeSource source = model.getTimeSource();
+            long modelDelay = model.onTick(source == SystemTimeSource.INSTANCE ? now : source.now());
+            if (modelDelay >= 0 && (delay < 0 || modelDelay < delay)) {
+                delay = modelDelay;
+            }
+            frameSynced |= modelDelay >= 0 && model.hasMilliseconds();
+        }
+        return frameSynced ? 0 : delay;
+    }
+
+    /**
+     * 计时中指示器的最小刷新粒度, 都没有计时时返回 Long.MAX_VALUE
+     */
+    static long minGranularity(List<IndicatorModel> models) {
+        long granularity = Long.MAX_VALUE;
+        for (int m = 0, count = models.size(); m < count; m++) {
+            IndicatorModel model = models.get(m);
+            if (model.isRunning()) {
+                granularity = Math.min(granularity, model.getGranularity());
+            }
+        }
+        return granularity;
+    }
+
+    /**
+     * 是否有计时中的指示器显示毫秒, 需要跟随屏幕刷新
+     */
+    static boolean isFrameSynced(List<IndicatorModel> models) {
+        for (int m = 0, count = models.size(); m < count; m++) {
+            IndicatorModel model = models.get(m);
+            if (model.isRunning() && model.hasMilliseconds()) return true;
+        }
+        return false;
+    }
+
+    boolean hasMilliseconds() {
+        return mTickScheduler.hasMilliseconds();
+    }
+
+    /**
+     * 拆分时间并写入指针, 不在视图中时文字位置等到测量时再计算
+     *
+     * @return 是否有指针变化
+     */
+    boolean update(long time) {
+        return layout.update(mTimeDecomposer, mTickScheduler.getFieldMask(), time,
+                strip != null ? strip.getTimeMetrics() : null, -1);
+    }
+}
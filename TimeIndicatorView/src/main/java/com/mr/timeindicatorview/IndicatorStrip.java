@@ -0,0 +1,347 @@
+package com.mr.timeindicatorview;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 在一个视图中横向绘制多个时间指示器
+ * <p>
+ * 列表行中并排显示开始时间, 结束时间和剩余时间等多个指示器时, 用一个视图代替多个 {@link TimeIndicatorView}:
+ * 所有 {@link IndicatorModel} 共用画笔, 文字度量, 一次测量, 一次绘制和同一个时钟订阅.
+ * 样式属性与 TimeIndicatorView 相同.
+ */
+public class IndicatorStrip extends View {
+
+    private final List<IndicatorModel> mModels = new ArrayList<>();
+
+    /**
+     * 所有指示器共用的样式, 格式和计时方向由各个指示器决定
+     */
+    private TimeIndicatorSpec mSpec;
+
+    /**
+     * 相邻两个指示器之间的距离
+     */
+    private int modelSpacing;
+
+    private Paint mTimeTextPaint;
+
+    private Paint mSuffixTextPaint;
+
+    private Paint mTimePointerPaint;
+
+    private final RectF mPointerRectF = new RectF();
+
+    private TextMetricsCache.Metrics mTimeMetrics;
+
+    private TextMetricsCache.Metrics mSuffixMetrics;
+
+    private final TimeIndicatorClock.Subscriber mClockSubscriber =
+            new TimeIndicatorClock.Subscriber() {
+                @Override
+                public long onClockTick(long now) {
+                    return onTimerTick(now);
+                }
+            };
+
+    private final ClockBinding mClock = new ClockBinding(this, mClockSubscriber, new Runnable() {
+        @Override
+        public void run() {
+            updateTimer();
+        }
+    });
+
+    public IndicatorStrip(Context context) {
+        super(context);
+        initialize(context, null, 0);
+    }
+
+    public IndicatorStrip(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        initialize(context, attrs, 0);
+    }
+
+    public IndicatorStrip(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        initialize(context, attrs, defStyleAttr);
+    }
+
+    private void initialize(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        TypedArray ta = context.getTheme().obtainStyledAttributes(attrs,
+                R.styleable.TimeIndicator, defStyleAttr, 0);
+
+        mSpec = TimeIndicatorSpec.from(ta);
+        mClock.setMaxFrameRate(ta.getInt(R.styleable.TimeIndicator_tiMaxFrameRate, 0));
+        ta.recycle();
+
+        TypedArray sa = context.getTheme().obtainStyledAttributes(attrs,
+                R.styleable.IndicatorStrip, defStyleAttr, 0);
+        modelSpacing = sa.getDimensionPixelSize(R.styleable.IndicatorStrip_tiModelSpacing, 0);
+        sa.recycle();
+
+        mTimeTextPaint = new Paint();
+        mTimeTextPaint.setAntiAlias(true);
+        mSuffixTextPaint = new Paint();
+        mSuffixTextPaint.setAntiAlias(true);
+        mTimePointerPaint = new Paint();
+        mTimePointerPaint.setAntiAlias(true);
+        mSpec.applyPaints(mTimeTextPaint, mSuffixTextPaint, mTimePointerPaint);
+    }
+
+    /**
+     * 添加指示器, 同一个指示器只能属于一个视图
+     */
+    public void addModel(IndicatorModel model) {
+        if (model.strip != null) {
+            throw new IllegalStateException("IndicatorModel already belongs to a strip");
+        }
+        model.strip = this;
+        mModels.add(model);
+
+        onModelLayoutChanged();
+    }
+
+    public void removeModel(IndicatorModel model) {
+        if (mModels.remove(model)) {
+            model.strip = null;
+            onModelLayoutChanged();
+        }
+    }
+
+    public void clearModels() {
+        for (int i = 0, size = mModels.size(); i < size; i++) {
+            mModels.get(i).strip = null;
+        }
+        mModels.clear();
+
+        onModelLayoutChanged();
+    }
+
+    public int getModelCount() {
+        return mModels.size();
+    }
+
+    public IndicatorModel getModel(int index) {
+        return mModels.get(index);
+    }
+
+    /**
+     * 设置显示毫秒时的最高帧率
+     *
+     * @param fps 最高帧率, 0 表示跟随屏幕刷新率
+     * @see TimeIndicatorView#setMaxFrameRate(int)
+     */
+    public void setMaxFrameRate(int fps) {
+        if (fps < 0) fps = 0;
+        if (mClock.getMaxFrameRate() == fps) return;
+        mClock.setMaxFrameRate(fps);
+
+        updateTimer();
+    }
+
+    public int getMaxFrameRate() {
+        return mClock.getMaxFrameRate();
+    }
+
+    /**
+     * 指示器格式变化, 需要重新测量
+     */
+    void onModelLayoutChanged() {
+        requestLayout();
+        invalidate();
+        updateTimer();
+    }
+
+    /**
+     * 指示器计时状态变化, 格子位置不变
+     */
+    void onModelChanged() {
+        invalidateDirtyNodes();
+        updateTimer();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+
+        TextMetricsCache.Metrics timeMetrics = getTimeMetrics();
+        TextMetricsCache.Metrics suffixMetrics = getSuffixMetrics();
+
+        int contentHeight = Math.max(mSpec.pointerHeight, suffixMetrics.getDigitHeight());
+
+        //每个指示器依次排列, 位置计算与 TimeIndicatorView 相同
+        int x = getPaddingLeft();
+        for (int m = 0, count = mModels.size(); m < count; m++) {
+            if (m > 0) x += modelSpacing;
+
+            IndicatorLayout layout = mModels.get(m).layout;
+            syncLayoutParams(layout);
+            x = layout.measure(timeMetrics, suffixMetrics, x, getPaddingTop());
+
+            List<NodeRect> nodes = layout.getNodes();
+            for (int i = 0, size = nodes.size(); i < size; i++) {
+                nodes.get(i).dirty = false;
+            }
+        }
+        x += getPaddingRight();
+
+        int width = MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.EXACTLY
+                ? MeasureSpec.getSize(widthMeasureSpec) : x;
+        int height = MeasureSpec.getMode(heightMeasureSpec) == MeasureSpec.EXACTLY
+                ? MeasureSpec.getSize(heightMeasureSpec)
+                : getPaddingTop() + contentHeight + getPaddingBottom();
+        setMeasuredDimension(width, height);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        for (int m = 0, count = mModels.size(); m < count; m++) {
+            List<NodeRect> nodes = mModels.get(m).layout.getNodes();
+            for (int i = 0, size = nodes.size(); i < size; i++) {
+                NodeRect rect = nodes.get(i);
+                //跳过被裁剪掉的节点
+                if (TimeIndicatorView.quickReject(canvas, rect))
+                    continue;
+
+                drawNode(canvas, rect);
+            }
+        }
+    }
+
+    private void drawNode(Canvas canvas, NodeRect rect) {
+        if (rect.isPointer) {
+            mPointerRectF.set(rect.bl, rect.bt, rect.br, rect.bb);
+            canvas.drawRoundRect(mPointerRectF, mSpec.pointerRadius, mSpec.pointerRadius, mTimePointerPaint);
+
+            if (rect.length > 0)
+                PointerTextPainter.drawStatic(canvas, rect, mTimeTextPaint, getTimeMetrics(),
+                        mSpec.fixedDigitWidth);
+        } else if (rect.format != null && rect.format.length() > 0) {
+            canvas.drawText(rect.format, rect.tx, rect.ty, mSuffixTextPaint);
+        }
+    }
+
+    /**
+     * 把布局相关的属性同步给指示器的布局, 不支持数字格子
+     */
+    private void syncLayoutParams(IndicatorLayout layout) {
+        layout.setPointerSize(mSpec.pointerWidth, mSpec.pointerHeight);
+        layout.setSuffixMargin(mSpec.suffixMarginLeft, mSpec.suffixMarginRight);
+        layout.setFixedDigitWidth(mSpec.fixedDigitWidth);
+        layout.setDigitCells(false, 0);
+    }
+
+    /**
+     * 所有指示器一起刷新, 只重绘内容变化的格子
+     */
+    private long onTimerTick(long now) {
+        long delay = IndicatorModel.tickAll(mModels, now);
+        invalidateDirtyNodes();
+        return delay;
+    }
+
+    /**
+     * 文字位置已经在 {@link IndicatorLayout#update} 中移动, 这里只清除标记
+     */
+    private void invalidateDirtyNodes() {
+        boolean changed = false;
+
+        for (int m = 0, count = mModels.size(); m < count; m++) {
+            List<NodeRect> nodes = mModels.get(m).layout.getNodes();
+            for (int i = 0, size = nodes.size(); i < size; i++) {
+                NodeRect rect = nodes.get(i);
+                if (!rect.dirty) continue;
+                rect.dirty = false;
+                changed = true;
+            }
+        }
+
+        //没有指针变化时跳过重绘, 硬件加速会忽略刷新区域, 有变化时整体重绘
+        if (changed) {
+            invalidate();
+        }
+    }
+
+    /**
+     * 订阅或暂停全局时钟, 刷新粒度取所有计时中指示器的最小值
+     */
+    private void updateTimer() {
+        if (!mClock.isActive()) {
+            mClock.cancel();
+            return;
+        }
+
+        long delay = onTimerTick(SystemTimeSource.INSTANCE.now());
+        if (delay >= 0) {
+            mClock.schedule(delay, IndicatorModel.minGranularity(mModels),
+                    IndicatorModel.isFrameSynced(mModels));
+        } else {
+            mClock.cancel();
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        mClock.onAttachedToWindow();
+        updateTimer();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+
+        mClock.onDetachedFromWindow();
+    }
+
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+
+        mClock.onVisibilityAggregated(isVisible);
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+
+        mClock.onWindowVisibilityChanged(visibility);
+    }
+
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+
+        mClock.onVisibilityChanged();
+    }
+
+    TextMetricsCache.Metrics getTimeMetrics() {
+        if (mTimeMetrics == null) {
+            mTimeMetrics = TextMetricsCache.get(mTimeTextPaint);
+        }
+        return mTimeMetrics;
+    }
+
+    private TextMetricsCache.Metrics getSuffixMetrics() {
+        if (mSuffixMetrics == null) {
+            mSuffixMetrics = TextMetricsCache.get(mSuffixTextPaint);
+        }
+        return mSuffixMetrics;
+    }
+}
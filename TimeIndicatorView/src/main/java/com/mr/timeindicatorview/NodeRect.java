@@ -1,24 +0,0 @@
-package com.mr.timeindicatorview;
-
-/**
- * @auther: pengwang
- * @date: 2022/5/16
- * @description:
- */
-public class NodeRect {
-
-    public boolean isPointer;
-    public String format;
-    public String text;
-    public int tx;
-    public int ty;
-    public int tWidth;
-    public int tHeight;
-
-    public int bl;
-    public int bt;
-    public int br;
-    public int bb;
-    public int bWidth;
-    public int bHeight;
-}
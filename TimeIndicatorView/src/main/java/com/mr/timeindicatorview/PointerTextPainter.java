@@ -0,0 +1,118 @@
+package com.mr.timeindicatorview;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 指针文字绘制, 包括数字切换动画
+ * <p>
+ * 动画状态全部保存在 {@link NodeRect} 预先分配的字段中, 每一帧只有 save/clipRect/restore 和逐字绘制,
+ * 不产生新对象. 只有数值变化的那几位数字参与动画, 其余数字静态绘制.
+ */
+final class PointerTextPainter {
+
+    private PointerTextPainter() {
+    }
+
+    /**
+     * 动画进度, 先快后慢
+     *
+     * @return [0, 1], 1 表示动画已结束
+     */
+    static float progress(long elapsed, long duration) {
+        if (duration <= 0 || elapsed >= duration) return 1f;
+        if (elapsed <= 0) return 0f;
+
+        float t = 1f - (float) elapsed / duration;
+        return 1f - t * t;
+    }
+
+    /**
+     * 静态绘制, 等宽排列时每个数字在自己的格子内居中
+     */
+    static void drawStatic(Canvas canvas, NodeRect rect, Paint paint,
+                           TextMetricsCache.Metrics metrics, boolean fixedDigitWidth) {
+        if (!fixedDigitWidth) {
+            canvas.drawText(rect.chars, 0, rect.length, rect.tx, rect.ty, paint);
+            return;
+        }
+
+        float slot = metrics.getMaxDigitWidth();
+        float x = rect.tx;
+        for (int i = 0; i < rect.length; i++) {
+            float offset = (slot - metrics.getCharWidth(rect.chars[i])) / 2;
+            canvas.drawText(rect.chars, i, 1, x + offset, rect.ty, paint);
+            x += slot;
+        }
+    }
+
+    /**
+     * 绘制切换动画的一帧, 内容裁剪在指针格子内
+     *
+     * @param flip     true 为翻转, 否则为滚动
+     * @param progress 动画进度, 见 {@link #progress(long, long)}
+     */
+    static void drawTransition(Canvas canvas, NodeRect rect, Paint paint,
+                               TextMetricsCache.Metrics metrics, boolean fixedDigitWidth,
+                               boolean flip, float progress) {
+        canvas.save();
+        canvas.clipRect(rect.bl, rect.bt, rect.br, rect.bb);
+
+        //递增时新数字从下方进入, 递减时从上方进入
+        int direction = rect.value >= rect.prevValue ? 1 : -1;
+
+        if (rect.prevLength != rect.length) {
+            //位数变化时整体切换
+            drawRun(canvas, rect, paint, rect.prevChars, 0, rect.prevLength, rect.prevTx,
+                    flip, progress, direction, true);
+            drawRun(canvas, rect, paint, rect.chars, 0, rect.length, rect.tx,
+                    flip, progress, direction, false);
+        } else {
+            float slot = metrics.getMaxDigitWidth();
+            float x = rect.tx;
+            for (int i = 0; i < rect.length; i++) {
+                char c = rect.chars[i];
+                char old = rect.prevChars[i];
+                float width = fixedDigitWidth ? slot : metrics.getCharWidth(c);
+                float newX = x + (fixedDigitWidth ? (slot - metrics.getCharWidth(c)) / 2 : 0);
+                if (c == old) {
+                    canvas.drawText(rect.chars, i, 1, newX, rect.ty, paint);
+                } else {
+                    float oldX = x + (width - metrics.getCharWidth(old)) / 2;
+                    drawRun(canvas, rect, paint, rect.prevChars, i, 1, oldX,
+                            flip, progress, direction, true);
+                    drawRun(canvas, rect, paint, rect.chars, i, 1, newX,
+                            flip, progress, direction, false);
+                }
+                x += width;
+            }
+        }
+
+        canvas.restore();
+    }
+
+    private static void drawRun(Canvas canvas, NodeRect rect, Paint paint, char[] text,
+                                int index, int count, float x, boolean flip, float progress,
+                                int direction, boolean outgoing) {
+        if (count <= 0) return;
+
+        if (flip) {
+            //前半段旧数字压扁消失, 后半段新数字展开出现
+            float scale = outgoing ? 1f - progress * 2 : progress * 2 - 1f;
+            if (scale <= 0) return;
+
+            float cy = (rect.bt + rect.bb) / 2f;
+            canvas.save();
+            canvas.scale(1f, scale, x, cy);
+            canvas.drawText(text, index, count, x, rect.ty, paint);
+            canvas.restore();
+        } else {
+            float height = rect.bb - rect.bt;
+            float dy = outgoing ? -direction * progress * height
+                    : direction * (1f - progress) * height;
+            canvas.drawText(text, index, count, x, rect.ty + dy, paint);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.mr.timeindicatorview;
+
+import android.graphics.Paint;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 预先计算好的指示器布局, 与 PrecomputedText 类似
+ * <p>
+ * 格式解析, 文字度量和各个格子的位置都不依赖具体的时间, 可以在任意线程提前算好,
+ * 主线程通过 {@link TimeIndicatorView#setPrecomputed(PrecomputedIndicator)} 直接使用.
+ * 对象创建后不可修改, 可以在多个视图间共用.
+ */
+public final class PrecomputedIndicator {
+
+    /**
+     * 影响布局的参数, 与视图的参数一致时预计算结果才能使用
+     *
+     * @see TimeIndicatorView#getIndicatorParams()
+     */
+    public static final class Params {
+        final float timeTextSize;
+        final boolean timeBold;
+        final float suffixTextSize;
+        final boolean suffixBold;
+        final int pointerWidth;
+        final int pointerHeight;
+        final int suffixMarginLeft;
+        final int suffixMarginRight;
+        final boolean fixedDigitWidth;
+        final boolean digitCells;
+        final int digitCellSpacing;
+
+        private Params(Builder builder) {
+            timeTextSize = builder.timeTextSize;
+            timeBold = builder.timeBold;
+            suffixTextSize = builder.suffixTextSize;
+            suffixBold = builder.suffixBold;
+            pointerWidth = builder.pointerWidth;
+            pointerHeight = builder.pointerHeight;
+            suffixMarginLeft = builder.suffixMarginLeft;
+            suffixMarginRight = builder.suffixMarginRight;
+            fixedDigitWidth = builder.fixedDigitWidth;
+            digitCells = builder.digitCells;
+            digitCellSpacing = builder.digitCellSpacing;
+        }
+
+        /**
+         * 把参数同步给布局, 与视图同步给自己布局的属性一致
+         */
+        void applyTo(IndicatorLayout layout) {
+            layout.setPointerSize(pointerWidth, pointerHeight);
+            layout.setSuffixMargin(suffixMarginLeft, suffixMarginRight);
+            layout.setFixedDigitWidth(fixedDigitWidth);
+            layout.setDigitCells(digitCells, digitCellSpacing);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Params)) return false;
+            Params params = (Params) o;
+            return Float.compare(params.timeTextSize, timeTextSize) == 0
+                    && timeBold == params.timeBold
+                    && Float.compare(params.suffixTextSize, suffixTextSize) == 0
+                    && suffixBold == params.suffixBold
+                    && pointerWidth == params.pointerWidth
+                    && pointerHeight == params.pointerHeight
+                    && suffixMarginLeft == params.suffixMarginLeft
+                    && suffixMarginRight == params.suffixMarginRight
+                    && fixedDigitWidth == params.fixedDigitWidth
+                    && digitCells == params.digitCells
+                    && digitCellSpacing == params.digitCellSpacing;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Float.floatToIntBits(timeTextSize);
+            result = 31 * result + (timeBold ? 1 : 0);
+            result = 31 * result + Float.floatToIntBits(suffixTextSize);
+            result = 31 * result + (suffixBold ? 1 : 0);
+            result = 31 * result + pointerWidth;
+            result = 31 * result + pointerHeight;
+            result = 31 * result + suffixMarginLeft;
+            result = 31 * result + suffixMarginRight;
+            result = 31 * result + (fixedDigitWidth ? 1 : 0);
+            result = 31 * result + (digitCells ? 1 : 0);
+            result = 31 * result + digitCellSpacing;
+            return result;
+        }
+
+        public static final class Builder {
+            private float timeTextSize;
+            private boolean timeBold;
+            private float suffixTextSize;
+            private boolean suffixBold;
+            private int pointerWidth;
+            private int pointerHeight;
+            private int suffixMarginLeft;
+            private int suffixMarginRight;
+            private boolean fixedDigitWidth;
+            private boolean digitCells;
+            private int digitCellSpacing;
+
+            public Builder setTimeText(float textSize, boolean bold) {
+                this.timeTextSize = textSize;
+                this.timeBold = bold;
+                return this;
+            }
+
+            public Builder setSuffixText(float textSize, boolean bold) {
+                this.suffixTextSize = textSize;
+                this.suffixBold = bold;
+                return this;
+            }
+
+            public Builder setPointerSize(int width, int height) {
+                this.pointerWidth = width;
+                this.pointerHeight = height;
+                return this;
+            }
+
+            public Builder setSuffixMargin(int left, int right) {
+                this.suffixMarginLeft = left;
+                this.suffixMarginRight = right;
+                return this;
+            }
+
+            public Builder setFixedDigitWidth(boolean fixedDigitWidth) {
+                this.fixedDigitWidth = fixedDigitWidth;
+                return this;
+            }
+
+            public Builder setDigitCells(boolean enabled, int spacing) {
+                this.digitCells = enabled;
+                this.digitCellSpacing = spacing;
+                return this;
+            }
+
+            public Params build() {
+                return new Params(this);
+            }
+        }
+    }
+
+    private final Params params;
+
+    private final CompiledFormat format;
+
+    private final TextMetricsCache.Metrics timeMetrics;
+
+    private final TextMetricsCache.Metrics suffixMetrics;
+
+    /**
+     * 从 (0, 0) 开始排列时各节点的位置, 见 {@link IndicatorLayout#saveGeometry()}
+     */
+    private final int[] geometry;
+
+    private final int contentWidth;
+
+    private final int contentHeight;
+
+    private PrecomputedIndicator(String pattern, Params params) {
+        this.params = params;
+        this.format = CompiledFormat.compile(pattern);
+        this.timeMetrics = TextMetricsCache.get(newPaint(params.timeTextSize, params.timeBold));
+        this.suffixMetrics = TextMetricsCache.get(newPaint(params.suffixTextSize, params.suffixBold));
+
+        //按视图的布局方式排列一次, 主线程测量时直接平移套用
+        IndicatorLayout layout = new IndicatorLayout();
+        params.applyTo(layout);
+        layout.setFormat(format);
+        contentWidth = layout.measure(timeMetrics, suffixMetrics, 0, 0);
+        contentHeight = layout.getContentHeight(suffixMetrics);
+        geometry = layout.saveGeometry();
+    }
+
+    /**
+     * 在当前线程计算, 可以在任意线程调用
+     */
+    public static PrecomputedIndicator create(String pattern, Params params) {
+        return new PrecomputedIndicator(pattern, params);
+    }
+
+    /**
+     * 提交到 executor 中计算, 例如在布局加载或列表预取时调用
+     */
+    public static Future<PrecomputedIndicator> prefetch(final String pattern, final Params params,
+                                                        Executor executor) {
+        FutureTask<PrecomputedIndicator> task = new FutureTask<>(new Callable<PrecomputedIndicator>() {
+            @Override
+            public PrecomputedIndicator call() {
+                return create(pattern, params);
+            }
+        });
+        executor.execute(task);
+        return task;
+    }
+
+    private static Paint newPaint(float textSize, boolean bold) {
+        //与视图中文字画笔影响度量的设置一致
+        Paint paint = new Paint();
+        paint.setAntiAlias(true);
+        paint.setTextSize(textSize);
+        paint.setFakeBoldText(bold);
+        return paint;
+    }
+
+    public Params getParams() {
+        return params;
+    }
+
+    public CompiledFormat getFormat() {
+        return format;
+    }
+
+    TextMetricsCache.Metrics getTimeMetrics() {
+        return timeMetrics;
+    }
+
+    TextMetricsCache.Metrics getSuffixMetrics() {
+        return suffixMetrics;
+    }
+
+    int[] getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * 不含内边距的内容宽度
+     */
+    public int getContentWidth() {
+        return contentWidth;
+    }
+
+    /**
+     * 不含内边距的内容高度
+     */
+    public int getContentHeight() {
+        return contentHeight;
+    }
+}
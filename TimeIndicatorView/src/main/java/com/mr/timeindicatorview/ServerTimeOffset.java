@@ -0,0 +1,165 @@
+package com.mr.timeindicatorview;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 服务器时间源, 由本地单调时钟加上估计的服务器时间偏移得到
+ * <p>
+ * 业务代码定期提交 (服务器时间, 往返耗时) 样本, 这里按最近若干个样本中往返耗时最小的一个估计偏移,
+ * 小的变化平滑过渡, 大的变化(首次同步或服务器时间跳变)直接生效. 所有视图通过
+ * {@link TimeIndicatorView#setTimeSource(TimeSource)} 共用同一个实例, 再用
+ * {@link TimeIndicatorView#bind(long, CompiledFormat)} 绑定服务器给出的截止时间,
+ * 显示内容都由同一个估计值算出, 不会各自漂移.
+ * <p>
+ * 可以在任意线程提交样本, {@link #now()} 只读取一个 volatile 字段, 不加锁.
+ */
+public final class ServerTimeOffset implements TimeSource {
+
+    /**
+     * 参与筛选的最近样本数
+     */
+    private static final int WINDOW = 8;
+
+    /**
+     * 平滑系数, 每个样本向最佳估计移动 1/SMOOTHING, 至少 1 毫秒
+     */
+    private static final int SMOOTHING = 4;
+
+    /**
+     * 偏差超过该值时直接跳到新的估计
+     */
+    private static final long STEP_THRESHOLD = 1000;
+
+    private final TimeSource localSource;
+
+    private final long[] mSampleOffsets = new long[WINDOW];
+
+    private final long[] mSampleRtts = new long[WINDOW];
+
+    private int mSampleCount;
+
+    private int mNextSample;
+
+    private volatile long mOffset;
+
+    private volatile long mUncertainty = -1;
+
+    /**
+     * 上一次返回的服务器时间, 平滑调整偏移时保证读数不后退
+     */
+    private volatile long mLastNow = Long.MIN_VALUE;
+
+    public ServerTimeOffset() {
+        this(SystemTimeSource.INSTANCE);
+    }
+
+    /**
+     * @param localSource 本地单调时钟, 样本的接收时间使用它的读数
+     */
+    public ServerTimeOffset(TimeSource localSource) {
+        this.localSource = localSource;
+    }
+
+    /**
+     * 以当前本地读数作为接收时间提交样本
+     *
+     * @see #addSample(long, long, long)
+     */
+    public void addSample(long serverTime, long rtt) {
+        addSample(serverTime, rtt, localSource.now());
+    }
+
+    /**
+     * 提交一次同步结果
+     *
+     * @param serverTime 服务器处理请求时的时间
+     * @param rtt        请求的往返耗时, 服务器时间按处于往返中点计算
+     * @param receivedAt 收到响应时本地时钟的读数
+     */
+    public synchronized void addSample(long serverTime, long rtt, long receivedAt) {
+        if (rtt < 0) throw new IllegalArgumentException("rtt must not be negative");
+
+        mSampleOffsets[mNextSample] = serverTime + rtt / 2 - receivedAt;
+        mSampleRtts[mNextSample] = rtt;
+        mNextSample = (mNextSample + 1) % WINDOW;
+        if (mSampleCount < WINDOW) mSampleCount++;
+
+        //往返耗时最小的样本受网络排队的影响最小, 相同时取最新的, 服务器时间变化后立即跟随
+        int oldest = mSampleCount < WINDOW ? 0 : mNextSample;
+        int best = oldest;
+        for (int k = 1; k < mSampleCount; k++) {
+            int i = (oldest + k) % WINDOW;
+            if (mSampleRtts[i] <= mSampleRtts[best]) best = i;
+        }
+        long target = mSampleOffsets[best];
+
+        long error = target - mOffset;
+        if (mUncertainty < 0 || Math.abs(error) > STEP_THRESHOLD) {
+            mOffset = target;
+            //跳变时允许读数后退
+            mLastNow = Long.MIN_VALUE;
+        } else {
+            //按绝对值向上取整, 剩余不足 SMOOTHING 毫秒的误差也能消除
+            long step = (Math.abs(error) + SMOOTHING - 1) / SMOOTHING;
+            mOffset += error < 0 ? -step : step;
+        }
+        mUncertainty = mSampleRtts[best] / 2;
+    }
+
+    /**
+     * 清空样本, 例如切换服务器后
+     */
+    public synchronized void reset() {
+        mSampleCount = 0;
+        mNextSample = 0;
+        mOffset = 0;
+        mUncertainty = -1;
+        mLastNow = Long.MIN_VALUE;
+    }
+
+    /**
+     * 是否已经收到过样本, 之前 {@link #now()} 返回本地时钟读数
+     */
+    public boolean isSynced() {
+        return mUncertainty >= 0;
+    }
+
+    /**
+     * 服务器时间减本地时钟读数
+     */
+    public long getOffset() {
+        return mOffset;
+    }
+
+    /**
+     * 当前估计的误差上限, 即最佳样本往返耗时的一半, 没有样本时为 -1
+     */
+    public long getUncertainty() {
+        return mUncertainty;
+    }
+
+    public TimeSource getLocalSource() {
+        return localSource;
+    }
+
+    /**
+     * 本地时钟读数对应的服务器时间
+     */
+    public long toServerTime(long localTime) {
+        return localTime + mOffset;
+    }
+
+    /**
+     * 估计的当前服务器时间
+     * <p>
+     * 偏移平滑变小时读数停留在上一次的值, 直到本地时钟追上, 同一线程读取时不会后退
+     */
+    @Override
+    public long now() {
+        long now = localSource.now() + mOffset;
+        long last = mLastNow;
+        if (now < last) return last;
+        mLastNow = now;
+        return now;
+    }
+}
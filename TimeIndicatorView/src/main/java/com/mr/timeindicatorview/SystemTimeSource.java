@@ -0,0 +1,21 @@
+package com.mr.timeindicatorview;
+
+import android.os.SystemClock;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 基于 {@link SystemClock#elapsedRealtime()} 的时间源, 包含深度睡眠时间且不受修改系统时间影响
+ */
+public final class SystemTimeSource implements TimeSource {
+
+    public static final SystemTimeSource INSTANCE = new SystemTimeSource();
+
+    private SystemTimeSource() {
+    }
+
+    @Override
+    public long now() {
+        return SystemClock.elapsedRealtime();
+    }
+}
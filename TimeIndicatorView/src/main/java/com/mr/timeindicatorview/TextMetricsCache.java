@@ -0,0 +1,229 @@
+package com.mr.timeindicatorview;
+
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 文字度量缓存
+ * <p>
+ * 按 字号 + 字体 + 粗体 缓存数字宽度, 后缀宽高和字体高度, 相同样式的所有视图共用一份,
+ * 测量时只做加法, 不再调用 {@link Paint#getTextBounds}.
+ */
+public final class TextMetricsCache {
+
+    private static final int MAX_SIZE = 32;
+
+    /**
+     * 每种样式缓存的后缀数量, 后缀来自格式字符串, 通常只有几个
+     */
+    private static final int MAX_SUFFIX_SIZE = 64;
+
+    /**
+     * 单独测量墨迹边界的字符, 下标 0-9 为数字, 10 为负号
+     */
+    private static final String DIGIT_CHARS = "0123456789-";
+
+    private static final Map<Key, Metrics> sCache = new LinkedHashMap<Key, Metrics>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Metrics> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    /**
+     * 查找用的 key, 只在持有 sCache 锁时使用, 避免每次查找创建对象
+     */
+    private static final Key sLookupKey = new Key();
+
+    private TextMetricsCache() {
+    }
+
+    /**
+     * 获取画笔当前样式对应的度量, 首次使用时测量
+     */
+    public static Metrics get(Paint paint) {
+        synchronized (sCache) {
+            sLookupKey.set(paint);
+            Metrics metrics = sCache.get(sLookupKey);
+            if (metrics == null) {
+                Key key = new Key();
+                key.set(paint);
+                metrics = new Metrics(paint);
+                sCache.put(key, metrics);
+            }
+            return metrics;
+        }
+    }
+
+    private static final class Key {
+        float textSize;
+        Typeface typeface;
+        boolean fakeBold;
+
+        void set(Paint paint) {
+            textSize = paint.getTextSize();
+            typeface = paint.getTypeface();
+            fakeBold = paint.isFakeBoldText();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return textSize == key.textSize
+                    && fakeBold == key.fakeBold
+                    && (typeface == null ? key.typeface == null : typeface.equals(key.typeface));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Float.floatToIntBits(textSize);
+            result = 31 * result + (typeface != null ? typeface.hashCode() : 0);
+            result = 31 * result + (fakeBold ? 1 : 0);
+            return result;
+        }
+    }
+
+    /**
+     * 一种文字样式的度量表
+     */
+    public static final class Metrics implements TextMeasurer {
+
+        /**
+         * 0-9 每个数字的前进宽度
+         */
+        private final float[] digitWidths = new float[10];
+
+        private final float minusWidth;
+
+        private final float maxDigitWidth;
+
+        /**
+         * 每个数字和负号的墨迹左右边界, 相对于绘制起点, 下标见 {@link #DIGIT_CHARS}
+         */
+        private final int[] inkLefts = new int[11];
+        private final int[] inkRights = new int[11];
+
+        /**
+         * 数字 "0" 的高度
+         */
+        private final int digitHeight;
+
+        /**
+         * 后缀文字宽高, 首次使用时测量, 最近最少使用的先移除
+         */
+        private final Map<String, int[]> suffixBounds =
+                new LinkedHashMap<String, int[]>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                        return size() > MAX_SUFFIX_SIZE;
+                    }
+                };
+
+        /**
+         * 测量后缀用的画笔副本, 不受原画笔后续修改影响
+         */
+        private final Paint measurePaint;
+
+        private Metrics(Paint paint) {
+            measurePaint = new Paint(paint);
+
+            float max = 0;
+            char[] digit = new char[1];
+            for (int i = 0; i < 10; i++) {
+                digit[0] = (char) ('0' + i);
+                digitWidths[i] = measurePaint.measureText(digit, 0, 1);
+                max = Math.max(max, digitWidths[i]);
+            }
+            maxDigitWidth = max;
+            minusWidth = measurePaint.measureText("-");
+
+            Rect bounds = new Rect();
+            for (int i = 0; i < DIGIT_CHARS.length(); i++) {
+                measurePaint.getTextBounds(DIGIT_CHARS, i, i + 1, bounds);
+                inkLefts[i] = bounds.left;
+                inkRights[i] = bounds.right;
+            }
+            measurePaint.getTextBounds("0", 0, 1, bounds);
+            digitHeight = bounds.height();
+        }
+
+        /**
+         * 与样式一致的画笔副本, 只能读取, 不能修改
+         */
+        Paint getPaint() {
+            return measurePaint;
+        }
+
+        public float getDigitWidth(int digit) {
+            return digitWidths[digit];
+        }
+
+        @Override
+        public float getMaxDigitWidth() {
+            return maxDigitWidth;
+        }
+
+        @Override
+        public int getDigitHeight() {
+            return digitHeight;
+        }
+
+        /**
+         * 单个数字或负号的宽度
+         */
+        @Override
+        public float getCharWidth(char c) {
+            return c >= '0' && c <= '9' ? digitWidths[c - '0'] : minusWidth;
+        }
+
+        /**
+         * 数字文字的墨迹宽度, 与 {@link Paint#getTextBounds} 的结果一致:
+         * 前面字符的前进宽度之和, 加上最后一个字符的墨迹右边界, 减去第一个字符的墨迹左边界
+         */
+        @Override
+        public float measureDigits(char[] chars, int length) {
+            if (length == 0) return 0;
+
+            float width = 0;
+            for (int i = 0; i < length - 1; i++) {
+                width += getCharWidth(chars[i]);
+            }
+            return width + inkRights[inkIndex(chars[length - 1])] - inkLefts[inkIndex(chars[0])];
+        }
+
+        private static int inkIndex(char c) {
+            return c >= '0' && c <= '9' ? c - '0' : 10;
+        }
+
+        @Override
+        public int getSuffixWidth(String suffix) {
+            return getSuffixBounds(suffix)[0];
+        }
+
+        @Override
+        public int getSuffixHeight(String suffix) {
+            return getSuffixBounds(suffix)[1];
+        }
+
+        private int[] getSuffixBounds(String suffix) {
+            synchronized (suffixBounds) {
+                int[] size = suffixBounds.get(suffix);
+                if (size == null) {
+                    Rect bounds = new Rect();
+                    measurePaint.getTextBounds(suffix, 0, suffix.length(), bounds);
+                    size = new int[]{bounds.width(), bounds.height()};
+                    suffixBounds.put(suffix, size);
+                }
+                return size;
+            }
+        }
+    }
+}
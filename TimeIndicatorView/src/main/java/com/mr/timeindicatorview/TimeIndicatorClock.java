@@ -0,0 +1,355 @@
+package com.mr.timeindicatorview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 全局计时时钟, 所有时间指示器共用一条 Handler 消息链
+ * <p>
+ * 订阅者按刷新粒度分组, 每次唤醒只取一次时间戳分发给所有到期的订阅者,
+ * 同一帧内所有指示器看到的是同一个时间. 时钟只弱引用订阅者, 不会导致视图泄漏.
+ * <p>
+ * 显示毫秒这类每帧都在变化的订阅者可以改为跟随屏幕刷新({@link #scheduleFrames}), 由
+ * {@link Choreographer} 在每一帧开始时用帧时间戳分发, 每个显示出来的帧只计算一次,
+ * 不会算出屏幕来不及显示的值. 90/120Hz 屏幕自动跟随, 也可以限制最高帧率以节省电量.
+ * <p>
+ * 只能在主线程使用.
+ */
+public final class TimeIndicatorClock {
+
+    /**
+     * 时钟订阅者
+     */
+    public interface Subscriber {
+        /**
+         * @param now 本次分发的时间戳, {@link SystemClock#elapsedRealtime()}
+         * @return 距离下一次需要刷新的毫秒数, 小于0表示停止订阅
+         */
+        long onClockTick(long now);
+    }
+
+    /**
+     * 订阅凭证, 由订阅方强引用持有, 可反复订阅和取消
+     */
+    public static final class Subscription {
+        private final WeakReference<Subscriber> subscriber;
+        private Group group;
+        private long granularity;
+        private long due;
+        private boolean active;
+
+        /**
+         * 是否跟随屏幕刷新分发
+         */
+        private boolean frameDriven;
+
+        /**
+         * 跟随屏幕刷新时两次分发的最小间隔
+         */
+        private long frameInterval;
+
+        public Subscription(Subscriber subscriber) {
+            this.subscriber = new WeakReference<>(subscriber);
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+    }
+
+    /**
+     * 相同刷新粒度的订阅者
+     */
+    private static final class Group {
+        final long granularity;
+        final ArrayList<Subscription> subscriptions = new ArrayList<>();
+        long nextDue = Long.MAX_VALUE;
+
+        Group(long granularity) {
+            this.granularity = granularity;
+        }
+    }
+
+    /**
+     * 帧时间的容差, 帧间隔不是整毫秒, 限制帧率时提前半帧(120Hz)也算到期, 避免隔帧跳动
+     */
+    private static final long FRAME_TOLERANCE = 4;
+
+    private static TimeIndicatorClock sInstance;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private final List<Group> mGroups = new ArrayList<>();
+
+    /**
+     * 分发过程中新加入的订阅, 分发结束后再合并
+     */
+    private final List<Subscription> mPending = new ArrayList<>();
+
+    private boolean mDispatching;
+
+    /**
+     * 已经安排的下一次唤醒时间, 没有时为 Long.MAX_VALUE
+     */
+    private long mScheduledDue = Long.MAX_VALUE;
+
+    private final Runnable mTickRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mScheduledDue = Long.MAX_VALUE;
+            dispatch(SystemClock.elapsedRealtime());
+        }
+    };
+
+    /**
+     * 跟随屏幕刷新的订阅
+     */
+    private final ArrayList<Subscription> mFrameSubscriptions = new ArrayList<>();
+
+    private boolean mFrameDispatching;
+
+    private boolean mFrameCallbackPosted;
+
+    private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mFrameCallbackPosted = false;
+            //帧时间与 System.nanoTime() 同一基准, 换算到 elapsedRealtime
+            long lag = Math.max(0, (System.nanoTime() - frameTimeNanos) / 1_000_000);
+            dispatchFrame(SystemClock.elapsedRealtime() - lag);
+        }
+    };
+
+    private TimeIndicatorClock() {
+    }
+
+    public static TimeIndicatorClock getInstance() {
+        if (sInstance == null) {
+            sInstance = new TimeIndicatorClock();
+        }
+        return sInstance;
+    }
+
+    /**
+     * 订阅时钟, 已经订阅时更新粒度和下一次刷新时间
+     *
+     * @param granularity 刷新粒度, 用于分组
+     * @param delay       距离下一次刷新的毫秒数
+     */
+    public void schedule(Subscription subscription, long granularity, long delay) {
+        long due = SystemClock.elapsedRealtime() + Math.max(0, delay);
+
+        if (subscription.frameDriven) {
+            subscription.frameDriven = false;
+            if (!mFrameDispatching) mFrameSubscriptions.remove(subscription);
+        }
+
+        subscription.due = due;
+        subscription.granularity = granularity;
+        subscription.active = true;
+
+        Group group = subscription.group;
+        if (group != null && group.granularity != granularity) {
+            //分发过程中不修改分组列表, 旧分组会在下一次分发时丢弃它
+            if (!mDispatching) group.subscriptions.remove(subscription);
+            subscription.group = null;
+            group = null;
+        }
+
+        if (group == null) {
+            if (mDispatching) {
+                if (!mPending.contains(subscription)) mPending.add(subscription);
+                return;
+            }
+            group = attach(subscription);
+        }
+
+        if (due < group.nextDue) {
+            group.nextDue = due;
+        }
+        if (!mDispatching) {
+            scheduleNext(due);
+        }
+    }
+
+    /**
+     * 跟随屏幕刷新订阅, 每一帧最多回调一次, 回调的时间戳为帧时间
+     *
+     * @param minFrameInterval 两次回调的最小间隔, 0 表示每一帧都回调, 例如 33 表示最高 30 帧
+     * @param delay            距离下一次刷新的毫秒数, 到期后的第一帧回调
+     */
+    public void scheduleFrames(Subscription subscription, long minFrameInterval, long delay) {
+        Group group = subscription.group;
+        if (group != null) {
+            //分发过程中不修改分组列表, 旧分组会在下一次分发时丢弃它
+            if (!mDispatching) group.subscriptions.remove(subscription);
+            subscription.group = null;
+        }
+        mPending.remove(subscription);
+
+        subscription.due = SystemClock.elapsedRealtime() + Math.max(0, delay);
+        subscription.frameInterval = Math.max(0, minFrameInterval);
+        subscription.active = true;
+        if (!subscription.frameDriven) {
+            subscription.frameDriven = true;
+            mFrameSubscriptions.add(subscription);
+        }
+
+        if (!mFrameCallbackPosted) {
+            mFrameCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        }
+    }
+
+    /**
+     * 取消订阅, 订阅凭证会在下一次分发时移除
+     */
+    public void cancel(Subscription subscription) {
+        subscription.active = false;
+    }
+
+    private Group attach(Subscription subscription) {
+        long granularity = subscription.granularity;
+        Group group = null;
+        int index = 0;
+        for (int size = mGroups.size(); index < size; index++) {
+            Group g = mGroups.get(index);
+            if (g.granularity == granularity) {
+                group = g;
+                break;
+            }
+            if (g.granularity > granularity) break;
+        }
+        if (group == null) {
+            group = new Group(granularity);
+            mGroups.add(index, group);
+        }
+        if (!group.subscriptions.contains(subscription)) {
+            group.subscriptions.add(subscription);
+        }
+        subscription.group = group;
+        if (subscription.due < group.nextDue) {
+            group.nextDue = subscription.due;
+        }
+        return group;
+    }
+
+    /**
+     * 把同一个时间戳分发给所有到期的订阅者
+     */
+    private void dispatch(long now) {
+        mDispatching = true;
+
+        for (int g = 0; g < mGroups.size(); g++) {
+            Group group = mGroups.get(g);
+            if (group.nextDue <= now) {
+                dispatchGroup(group, now);
+            }
+            if (group.subscriptions.isEmpty()) {
+                mGroups.remove(g--);
+            }
+        }
+
+        mDispatching = false;
+
+        for (int i = 0, size = mPending.size(); i < size; i++) {
+            Subscription subscription = mPending.get(i);
+            if (subscription.active && subscription.group == null) {
+                attach(subscription);
+            }
+        }
+        mPending.clear();
+
+        //回调中可能把已经分发过的分组提前, 分发结束后再取所有分组的最早时间
+        long nextDue = Long.MAX_VALUE;
+        for (int g = 0, size = mGroups.size(); g < size; g++) {
+            nextDue = Math.min(nextDue, mGroups.get(g).nextDue);
+        }
+        scheduleNext(nextDue);
+    }
+
+    private void dispatchGroup(Group group, long now) {
+        ArrayList<Subscription> subscriptions = group.subscriptions;
+        long nextDue = Long.MAX_VALUE;
+        int write = 0;
+        for (int read = 0, size = subscriptions.size(); read < size; read++) {
+            Subscription subscription = subscriptions.get(read);
+            if (subscription.active && subscription.due <= now) {
+                Subscriber subscriber = subscription.subscriber.get();
+                long delay = subscriber == null ? -1 : subscriber.onClockTick(now);
+                if (delay < 0) {
+                    subscription.active = false;
+                } else if (subscription.due <= now) {
+                    //回调中没有重新订阅时才按返回值安排下一次
+                    subscription.due = now + delay;
+                }
+            }
+            if (subscription.active && subscription.group == group) {
+                subscriptions.set(write++, subscription);
+                nextDue = Math.min(nextDue, subscription.due);
+            } else if (subscription.group == group) {
+                subscription.group = null;
+            }
+        }
+        for (int i = subscriptions.size() - 1; i >= write; i--) {
+            subscriptions.remove(i);
+        }
+        group.nextDue = nextDue;
+    }
+
+    /**
+     * 把帧时间分发给到期的跟随屏幕刷新的订阅者, 还有订阅时继续等待下一帧
+     */
+    private void dispatchFrame(long now) {
+        mFrameDispatching = true;
+
+        ArrayList<Subscription> subscriptions = mFrameSubscriptions;
+        int write = 0;
+        for (int read = 0; read < subscriptions.size(); read++) {
+            Subscription subscription = subscriptions.get(read);
+            if (subscription.active && subscription.frameDriven
+                    && subscription.due <= now + FRAME_TOLERANCE) {
+                Subscriber subscriber = subscription.subscriber.get();
+                long delay = subscriber == null ? -1 : subscriber.onClockTick(now);
+                if (delay < 0) {
+                    subscription.active = false;
+                } else if (subscription.frameDriven && subscription.due <= now + FRAME_TOLERANCE) {
+                    //回调中没有重新订阅时才按返回值安排下一次
+                    subscription.due = now + Math.max(delay, subscription.frameInterval);
+                }
+            }
+            if (subscription.active && subscription.frameDriven) {
+                subscriptions.set(write++, subscription);
+            } else {
+                subscription.frameDriven = false;
+            }
+        }
+        for (int i = subscriptions.size() - 1; i >= write; i--) {
+            subscriptions.remove(i);
+        }
+
+        mFrameDispatching = false;
+
+        if (!subscriptions.isEmpty() && !mFrameCallbackPosted) {
+            mFrameCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        }
+    }
+
+    private void scheduleNext(long due) {
+        if (due == Long.MAX_VALUE || due >= mScheduledDue) return;
+
+        mHandler.removeCallbacks(mTickRunnable);
+        mScheduledDue = due;
+        long delay = Math.max(0, due - SystemClock.elapsedRealtime());
+        mHandler.postAtTime(mTickRunnable, SystemClock.uptimeMillis() + delay);
+    }
+}
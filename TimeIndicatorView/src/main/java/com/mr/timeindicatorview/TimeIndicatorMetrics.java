@@ -0,0 +1,61 @@
+package com.mr.timeindicatorview;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 时间指示器运行数据回调, 可以全局注册或按视图注册, 用于接入自己的统计系统
+ * <p>
+ * 所有回调都在主线程执行, 默认实现为空, 按需覆写. 没有注册时视图不会读取时间, 几乎没有额外开销.
+ * 回调中不要做耗时操作, 它们就在刷新和绘制路径上.
+ * <p>
+ * 内存只报告节点和快照位图这两类由视图自己创建的对象, 字符串, 字形位图和拆分器等其他分配不在统计范围内.
+ *
+ * @see TimeIndicatorView#setGlobalMetrics(TimeIndicatorMetrics)
+ * @see TimeIndicatorView#setMetrics(TimeIndicatorMetrics)
+ * @see TimeIndicatorStats
+ */
+public abstract class TimeIndicatorMetrics {
+
+    /**
+     * 全局时钟触发了一次刷新
+     *
+     * @param lateness 比预定刷新时间晚的毫秒数
+     * @param dropped  因为迟到而错过的显示变化次数, 按刷新粒度计算, 跟随屏幕刷新时按帧计算
+     */
+    public void onTick(TimeIndicatorView view, long lateness, int dropped) {
+    }
+
+    /**
+     * 刷新后发起了重绘, 或者因为内容没有变化而跳过
+     */
+    public void onInvalidate(TimeIndicatorView view, boolean skipped) {
+    }
+
+    /**
+     * @param durationNanos onDraw 耗时
+     */
+    public void onDraw(TimeIndicatorView view, long durationNanos) {
+    }
+
+    /**
+     * @param durationNanos onMeasure 耗时
+     */
+    public void onMeasure(TimeIndicatorView view, long durationNanos) {
+    }
+
+    /**
+     * 重新创建了指针节点, 发生在格式变化时
+     *
+     * @param count 新建的节点数
+     */
+    public void onNodesAllocated(TimeIndicatorView view, int count) {
+    }
+
+    /**
+     * 创建了快照位图
+     *
+     * @param bytes 位图占用的字节数
+     */
+    public void onSnapshotAllocated(TimeIndicatorView view, long bytes) {
+    }
+}
@@ -0,0 +1,299 @@
+package com.mr.timeindicatorview;
+
+import android.content.res.TypedArray;
+import android.graphics.Paint;
+import android.text.TextUtils;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 不可修改的视图样式, 包括格式, 计时方向, 文字和指针的颜色, 大小和样式
+ * <p>
+ * 通过 {@link TimeIndicatorView#apply(TimeIndicatorSpec)} 一次应用, 视图只比较变化的部分,
+ * 最多触发一次重新布局和一次重绘. 对象可以在多个视图间共用, 例如列表中每一行应用同一个实例.
+ */
+public final class TimeIndicatorSpec {
+
+    /**
+     * {@link #diff(Builder)} 的结果, 格式变化
+     */
+    static final int CHANGED_FORMAT = 1;
+
+    /**
+     * 计时方向变化
+     */
+    static final int CHANGED_COUNTDOWN = 1 << 1;
+
+    /**
+     * 指针文字的度量变化(大小或粗细), 需要重新取得度量表
+     */
+    static final int CHANGED_TIME_METRICS = 1 << 2;
+
+    /**
+     * 后缀文字的度量变化
+     */
+    static final int CHANGED_SUFFIX_METRICS = 1 << 3;
+
+    /**
+     * 尺寸或位置变化, 需要重新布局
+     */
+    static final int CHANGED_LAYOUT = 1 << 4;
+
+    /**
+     * 只影响绘制的颜色, 圆角或样式变化
+     */
+    static final int CHANGED_DRAW = 1 << 5;
+
+    final CompiledFormat format;
+    final boolean countdown;
+    final int pointerBackgroundColor;
+    final int pointerTextColor;
+    final float pointerTextSize;
+    final int pointerTextStyle;
+    final int pointerRadius;
+    final int pointerWidth;
+    final int pointerHeight;
+    final int suffixTextColor;
+    final float suffixTextSize;
+    final int suffixTextStyle;
+    final int suffixMarginLeft;
+    final int suffixMarginRight;
+    final boolean fixedDigitWidth;
+
+    private TimeIndicatorSpec(Builder builder) {
+        format = builder.format;
+        countdown = builder.countdown;
+        pointerBackgroundColor = builder.pointerBackgroundColor;
+        pointerTextColor = builder.pointerTextColor;
+        pointerTextSize = builder.pointerTextSize;
+        pointerTextStyle = builder.pointerTextStyle;
+        pointerRadius = builder.pointerRadius;
+        pointerWidth = builder.pointerWidth;
+        pointerHeight = builder.pointerHeight;
+        suffixTextColor = builder.suffixTextColor;
+        suffixTextSize = builder.suffixTextSize;
+        suffixTextStyle = builder.suffixTextStyle;
+        suffixMarginLeft = builder.suffixMarginLeft;
+        suffixMarginRight = builder.suffixMarginRight;
+        fixedDigitWidth = builder.fixedDigitWidth;
+    }
+
+    /**
+     * 读取 xml 中的样式属性, 未设置的属性使用默认值, TimeIndicatorView 和 IndicatorStrip 共用
+     *
+     * @param ta 由 R.styleable.TimeIndicator 得到
+     */
+    static TimeIndicatorSpec from(TypedArray ta) {
+        Builder builder = new Builder();
+        String pattern = ta.getString(R.styleable.TimeIndicator_tiDataFormat);
+        if (!TextUtils.isEmpty(pattern)) builder.setFormat(pattern);
+        builder.countdown = ta.getBoolean(R.styleable.TimeIndicator_tiIsCountdown,
+                TimeIndicatorView.DEF_IS_COUNTDOWN);
+        builder.pointerBackgroundColor = ta.getColor(R.styleable.TimeIndicator_tiPointerBackgroundColor,
+                TimeIndicatorView.DEF_POINTER_BACKGROUND_COLOR);
+        builder.pointerTextColor = ta.getColor(R.styleable.TimeIndicator_tiPointerTextColor,
+                TimeIndicatorView.DEF_TEXT_COLOR);
+        builder.pointerTextSize = ta.getDimensionPixelSize(R.styleable.TimeIndicator_tiPointerTextSize,
+                TimeIndicatorView.DEF_TEXT_SIZE);
+        builder.pointerTextStyle = ta.getInt(R.styleable.TimeIndicator_tiPointerTextStyle,
+                TimeIndicatorView.DEF_TEXT_STYLE);
+        builder.pointerRadius = ta.getDimensionPixelSize(R.styleable.TimeIndicator_tiPointerRadius,
+                TimeIndicatorView.DEF_POINTER_RADIUS);
+        builder.pointerWidth = ta.getDimensionPixelSize(R.styleable.TimeIndicator_tiPointerWidth,
+                TimeIndicatorView.DEF_POINTER_SIZE);
+        builder.pointerHeight = ta.getDimensionPixelSize(R.styleable.TimeIndicator_tiPointerHeight,
+                TimeIndicatorView.DEF_POINTER_SIZE);
+        builder.suffixTextColor = ta.getColor(R.styleable.TimeIndicator_tiSuffixTextColor,
+                TimeIndicatorView.DEF_TEXT_COLOR);
+        builder.suffixTextSize = ta.getDimensionPixelSize(R.styleable.TimeIndicator_tiSuffixTextSize,
+                TimeIndicatorView.DEF_TEXT_SIZE);
+        builder.suffixTextStyle = ta.getInt(R.styleable.TimeIndicator_tiSuffixTextStyle,
+                TimeIndicatorView.DEF_TEXT_STYLE);
+        builder.suffixMarginLeft = ta.getDimensionPixelSize(R.styleable.TimeIndicator_tiSuffixMarginLeft, 0);
+        builder.suffixMarginRight = ta.getDimensionPixelSize(R.styleable.TimeIndicator_tiSuffixMarginRight, 0);
+        builder.fixedDigitWidth = ta.getBoolean(R.styleable.TimeIndicator_tiFixedDigitWidth, false);
+        return builder.build();
+    }
+
+    /**
+     * 按样式设置指针文字, 后缀文字和指针背景的画笔
+     */
+    void applyPaints(Paint timeText, Paint suffixText, Paint pointer) {
+        timeText.setColor(pointerTextColor);
+        timeText.setTextSize(pointerTextSize);
+        setTextStyle(timeText, pointerTextStyle);
+        suffixText.setColor(suffixTextColor);
+        suffixText.setTextSize(suffixTextSize);
+        setTextStyle(suffixText, suffixTextStyle);
+        pointer.setColor(pointerBackgroundColor);
+    }
+
+    /**
+     * @param style 大于 0 时为粗体
+     */
+    static void setTextStyle(Paint textPaint, int style) {
+        textPaint.setFakeBoldText(style > 0);
+        textPaint.setTextSkewX(0);
+    }
+
+    /**
+     * 与当前样式比较, 不产生新对象
+     *
+     * @param current 视图当前的样式
+     * @return CHANGED_* 的组合, 没有变化时为 0
+     */
+    int diff(Builder current) {
+        int changes = 0;
+        if (format != current.format && !format.getPattern().equals(current.format.getPattern())) {
+            changes |= CHANGED_FORMAT | CHANGED_LAYOUT;
+        }
+        if (countdown != current.countdown) changes |= CHANGED_COUNTDOWN;
+        if (Float.compare(pointerTextSize, current.pointerTextSize) != 0
+                || (pointerTextStyle > 0) != (current.pointerTextStyle > 0)) {
+            changes |= CHANGED_TIME_METRICS | CHANGED_LAYOUT;
+        }
+        if (Float.compare(suffixTextSize, current.suffixTextSize) != 0
+                || (suffixTextStyle > 0) != (current.suffixTextStyle > 0)) {
+            changes |= CHANGED_SUFFIX_METRICS | CHANGED_LAYOUT;
+        }
+        if (pointerWidth != current.pointerWidth
+                || pointerHeight != current.pointerHeight
+                || suffixMarginLeft != current.suffixMarginLeft
+                || suffixMarginRight != current.suffixMarginRight
+                || fixedDigitWidth != current.fixedDigitWidth) {
+            changes |= CHANGED_LAYOUT;
+        }
+        if (pointerBackgroundColor != current.pointerBackgroundColor
+                || pointerTextColor != current.pointerTextColor
+                || suffixTextColor != current.suffixTextColor
+                || pointerRadius != current.pointerRadius
+                || pointerTextStyle != current.pointerTextStyle
+                || suffixTextStyle != current.suffixTextStyle) {
+            changes |= CHANGED_DRAW;
+        }
+        return changes;
+    }
+
+    public CompiledFormat getFormat() {
+        return format;
+    }
+
+    public boolean isCountdown() {
+        return countdown;
+    }
+
+    public Builder buildUpon() {
+        return new Builder(this);
+    }
+
+    /**
+     * 视图可以持有一个 Builder 记录当前样式, 反复比较时不产生新对象
+     */
+    public static final class Builder {
+        private CompiledFormat format = CompiledFormat.compile(TimeIndicatorView.DEF_DATA_FORMAT);
+        private boolean countdown = TimeIndicatorView.DEF_IS_COUNTDOWN;
+        private int pointerBackgroundColor = TimeIndicatorView.DEF_POINTER_BACKGROUND_COLOR;
+        private int pointerTextColor = TimeIndicatorView.DEF_TEXT_COLOR;
+        private float pointerTextSize = TimeIndicatorView.DEF_TEXT_SIZE;
+        private int pointerTextStyle = TimeIndicatorView.DEF_TEXT_STYLE;
+        private int pointerRadius = TimeIndicatorView.DEF_POINTER_RADIUS;
+        private int pointerWidth = TimeIndicatorView.DEF_POINTER_SIZE;
+        private int pointerHeight = TimeIndicatorView.DEF_POINTER_SIZE;
+        private int suffixTextColor = TimeIndicatorView.DEF_TEXT_COLOR;
+        private float suffixTextSize = TimeIndicatorView.DEF_TEXT_SIZE;
+        private int suffixTextStyle = TimeIndicatorView.DEF_TEXT_STYLE;
+        private int suffixMarginLeft;
+        private int suffixMarginRight;
+        private boolean fixedDigitWidth;
+
+        /**
+         * 默认值与 xml 中不设置属性时相同
+         */
+        public Builder() {
+        }
+
+        public Builder(TimeIndicatorSpec spec) {
+            format = spec.format;
+            countdown = spec.countdown;
+            pointerBackgroundColor = spec.pointerBackgroundColor;
+            pointerTextColor = spec.pointerTextColor;
+            pointerTextSize = spec.pointerTextSize;
+            pointerTextStyle = spec.pointerTextStyle;
+            pointerRadius = spec.pointerRadius;
+            pointerWidth = spec.pointerWidth;
+            pointerHeight = spec.pointerHeight;
+            suffixTextColor = spec.suffixTextColor;
+            suffixTextSize = spec.suffixTextSize;
+            suffixTextStyle = spec.suffixTextStyle;
+            suffixMarginLeft = spec.suffixMarginLeft;
+            suffixMarginRight = spec.suffixMarginRight;
+            fixedDigitWidth = spec.fixedDigitWidth;
+        }
+
+        public Builder setFormat(String pattern) {
+            this.format = CompiledFormat.compile(pattern);
+            return this;
+        }
+
+        public Builder setFormat(CompiledFormat format) {
+            this.format = format;
+            return this;
+        }
+
+        public Builder setCountdown(boolean countdown) {
+            this.countdown = countdown;
+            return this;
+        }
+
+        public Builder setPointerBackgroundColor(int color) {
+            this.pointerBackgroundColor = color;
+            return this;
+        }
+
+        public Builder setPointerRadius(int radius) {
+            this.pointerRadius = radius;
+            return this;
+        }
+
+        public Builder setPointerSize(int width, int height) {
+            this.pointerWidth = width;
+            this.pointerHeight = height;
+            return this;
+        }
+
+        /**
+         * @param style 大于 0 时为粗体
+         */
+        public Builder setTimeText(int color, float size, int style) {
+            this.pointerTextColor = color;
+            this.pointerTextSize = size;
+            this.pointerTextStyle = style;
+            return this;
+        }
+
+        /**
+         * @param style 大于 0 时为粗体
+         */
+        public Builder setSuffixText(int color, float size, int style) {
+            this.suffixTextColor = color;
+            this.suffixTextSize = size;
+            this.suffixTextStyle = style;
+            return this;
+        }
+
+        public Builder setSuffixMargin(int left, int right) {
+            this.suffixMarginLeft = left;
+            this.suffixMarginRight = right;
+            return this;
+        }
+
+        public Builder setFixedDigitWidth(boolean fixedDigitWidth) {
+            this.fixedDigitWidth = fixedDigitWidth;
+            return this;
+        }
+
+        public TimeIndicatorSpec build() {
+            return new TimeIndicatorSpec(this);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.mr.timeindicatorview;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 累计各项运行数据的默认实现, 只能在主线程读取
+ * <p>
+ * 迟到时间按 2 的幂分桶: 第 0 个桶为 0 毫秒, 第 i 个桶为 [2^(i-1), 2^i) 毫秒, 最后一个桶包含更大的值.
+ */
+public class TimeIndicatorStats extends TimeIndicatorMetrics {
+
+    public static final int BUCKET_COUNT = 12;
+
+    private final long[] latenessBuckets = new long[BUCKET_COUNT];
+
+    private long tickCount;
+    private long droppedCount;
+    private long maxLateness;
+
+    private long invalidateCount;
+    private long skippedCount;
+
+    private long drawCount;
+    private long drawNanos;
+    private long maxDrawNanos;
+
+    private long measureCount;
+    private long measureNanos;
+    private long maxMeasureNanos;
+
+    /**
+     * 只统计视图自己创建的节点和快照位图, 不是全部内存分配, 后者见基准测试的 gc.alloc.rate.norm
+     */
+    private long nodeAllocations;
+    private long snapshotAllocationBytes;
+
+    @Override
+    public void onTick(TimeIndicatorView view, long lateness, int dropped) {
+        tickCount++;
+        droppedCount += dropped;
+        maxLateness = Math.max(maxLateness, lateness);
+        latenessBuckets[bucketOf(lateness)]++;
+    }
+
+    @Override
+    public void onInvalidate(TimeIndicatorView view, boolean skipped) {
+        if (skipped) {
+            skippedCount++;
+        } else {
+            invalidateCount++;
+        }
+    }
+
+    @Override
+    public void onDraw(TimeIndicatorView view, long durationNanos) {
+        drawCount++;
+        drawNanos += durationNanos;
+        maxDrawNanos = Math.max(maxDrawNanos, durationNanos);
+    }
+
+    @Override
+    public void onMeasure(TimeIndicatorView view, long durationNanos) {
+        measureCount++;
+        measureNanos += durationNanos;
+        maxMeasureNanos = Math.max(maxMeasureNanos, durationNanos);
+    }
+
+    @Override
+    public void onNodesAllocated(TimeIndicatorView view, int count) {
+        nodeAllocations += count;
+    }
+
+    @Override
+    public void onSnapshotAllocated(TimeIndicatorView view, long bytes) {
+        snapshotAllocationBytes += bytes;
+    }
+
+    /**
+     * 迟到时间所在的桶
+     */
+    public static int bucketOf(long lateness) {
+        if (lateness <= 0) return 0;
+        int bucket = 64 - Long.numberOfLeadingZeros(lateness);
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * 桶的上界 (不包含), 最后一个桶返回 Long.MAX_VALUE
+     */
+    public static long bucketUpperBound(int bucket) {
+        return bucket >= BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    public long getLatenessCount(int bucket) {
+        return latenessBuckets[bucket];
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public long getMaxLateness() {
+        return maxLateness;
+    }
+
+    public long getInvalidateCount() {
+        return invalidateCount;
+    }
+
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    public long getDrawCount() {
+        return drawCount;
+    }
+
+    public long getDrawNanos() {
+        return drawNanos;
+    }
+
+    public long getMaxDrawNanos() {
+        return maxDrawNanos;
+    }
+
+    public long getMeasureCount() {
+        return measureCount;
+    }
+
+    public long getMeasureNanos() {
+        return measureNanos;
+    }
+
+    public long getMaxMeasureNanos() {
+        return maxMeasureNanos;
+    }
+
+    /**
+     * 新建的指针节点数
+     */
+    public long getNodeAllocations() {
+        return nodeAllocations;
+    }
+
+    /**
+     * 新建的快照位图的字节数
+     */
+    public long getSnapshotAllocationBytes() {
+        return snapshotAllocationBytes;
+    }
+
+    /**
+     * 清空所有数据
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            latenessBuckets[i] = 0;
+        }
+        tickCount = 0;
+        droppedCount = 0;
+        maxLateness = 0;
+        invalidateCount = 0;
+        skippedCount = 0;
+        drawCount = 0;
+        drawNanos = 0;
+        maxDrawNanos = 0;
+        measureCount = 0;
+        measureNanos = 0;
+        maxMeasureNanos = 0;
+        nodeAllocations = 0;
+        snapshotAllocationBytes = 0;
+    }
+}
@@ -1,23 +1,32 @@
 package com.mr.timeindicatorview;
 
+import android.content.BroadcastReceiver;
 import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Bitmap;
 import android.graphics.Paint;
+import android.graphics.PorterDuff;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Typeface;
-import android.os.CountDownTimer;
+import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.view.View;
+import android.view.animation.AnimationUtils;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import java.text.DecimalFormat;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.TimeZone;
 
 
 /**
@@ -27,20 +36,13 @@ import java.util.List;
  */
 public class TimeIndicatorView extends View {
 
-    private static final int TIME_OF_MILLISECOND = 1000;
-    private static final int TIME_OF_MINUTE = 60 * TIME_OF_MILLISECOND;
-    private static final int TIME_OF_HOURS = 60 * TIME_OF_MINUTE;
-    private static final int TIME_OF_DAY = 24 * TIME_OF_HOURS;
-    private static final long TIME_OF_MONTH = 30L * TIME_OF_DAY;
-    private static final long TIME_OF_YEAR = 365L * TIME_OF_DAY;
-
-    public static final String YEARS = "yyyy";
-    public static final String MONTH = "MM";
-    public static final String DAY = "dd";
-    public static final String HOURS = "HH";
-    public static final String MINUTE = "mm";
-    public static final String SECONDS = "ss";
-    public static final String MILLISECOND = "SSS";
+    public static final String YEARS = TimeField.FORMAT_YEAR;
+    public static final String MONTH = TimeField.FORMAT_MONTH;
+    public static final String DAY = TimeField.FORMAT_DAY;
+    public static final String HOURS = TimeField.FORMAT_HOURS;
+    public static final String MINUTE = TimeField.FORMAT_MINUTE;
+    public static final String SECONDS = TimeField.FORMAT_SECONDS;
+    public static final String MILLISECOND = TimeField.FORMAT_MILLISECOND;
 
     public static final String SUFFIX1 = "-";
     public static final String SUFFIX2 = ":";
@@ -56,35 +58,75 @@ public class TimeIndicatorView extends View {
 
     public static final long DEF_MILLIS_IN_FUTURE = 20;
 
+    /**
+     * 时长模式, 显示一段时间的长度
+     */
+    public static final int TIME_MODE_DURATION = 0;
+
+    /**
+     * 日历模式, 把时间作为 UTC 毫秒数按时区显示为日期时间
+     */
+    public static final int TIME_MODE_CALENDAR = 1;
+
+    /**
+     * 时钟模式, 从当前时刻开始计时, 按时区显示当地的日期时间
+     */
+    public static final int TIME_MODE_WALL_CLOCK = 2;
+
+    /**
+     * 数字切换无动画
+     */
+    public static final int TRANSITION_NONE = 0;
+
+    /**
+     * 数字切换时滚动, 递增时新数字从下方滚入
+     */
+    public static final int TRANSITION_ROLL = 1;
+
+    /**
+     * 数字切换时上下翻转
+     */
+    public static final int TRANSITION_FLIP = 2;
+
+    /**
+     * 默认数字切换动画时长
+     */
+    private static final int DEF_TRANSITION_DURATION = 300;
+
     /**
      * 默认时间格式
      */
-    private static final String DEF_DATA_FORMAT = "yyyy-MM-dd HH:mm:ss";
+    static final String DEF_DATA_FORMAT = "yyyy-MM-dd HH:mm:ss";
 
     /**
      * 模式指针背景颜色
      */
-    private static final int DEF_POINTER_BACKGROUND_COLOR = Color.WHITE;
+    static final int DEF_POINTER_BACKGROUND_COLOR = Color.WHITE;
 
     /**
      * 默认指针字体颜色
      */
-    private static final int DEF_TEXT_COLOR = Color.GRAY;
+    static final int DEF_TEXT_COLOR = Color.GRAY;
 
     /**
      * 默认字体大小
      */
-    private static final int DEF_TEXT_SIZE = 12;
+    static final int DEF_TEXT_SIZE = 12;
 
     /**
      * 默认字体样式
      */
-    private static final int DEF_TEXT_STYLE = Typeface.NORMAL;
+    static final int DEF_TEXT_STYLE = Typeface.NORMAL;
 
     /**
      * 默认指针圆角
      */
-    private static final int DEF_POINTER_RADIUS = 0;
+    static final int DEF_POINTER_RADIUS = 0;
+
+    /**
+     * 默认指针宽高
+     */
+    static final int DEF_POINTER_SIZE = 28;
 
     /**
      * 默认指针重力控制
@@ -94,7 +136,7 @@ public class TimeIndicatorView extends View {
     /**
      * 默认倒计时状态
      */
-    private static final boolean DEF_IS_COUNTDOWN = false;
+    static final boolean DEF_IS_COUNTDOWN = false;
 
     /**
      * 是否为倒计时
@@ -167,14 +209,100 @@ public class TimeIndicatorView extends View {
     private int suffixMarginRight;
 
     /**
-     * 计时间隔
+     * 数字等宽排列, 每个数字占用最宽数字的宽度, 计时过程中文字位置不变
+     */
+    private boolean fixedDigitWidth;
+
+    /**
+     * 每个数字使用单独的指针格子, 数字和后缀从字形图集中贴图绘制
+     */
+    private boolean digitCells;
+
+    /**
+     * 同一字段相邻数字格子的间距
+     */
+    private int digitCellSpacing;
+
+    private GlyphAtlas mTimeAtlas;
+
+    private GlyphAtlas mSuffixAtlas;
+
+    /**
+     * 贴图的目标区域, 绘制时复用
+     */
+    private final Rect mGlyphDst = new Rect();
+
+    /**
+     * 是否把绘制结果缓存为位图, 内容不变时直接绘制位图
+     */
+    private boolean snapshotCache;
+
+    /**
+     * 数字切换动画类型
+     */
+    private int digitTransition = TRANSITION_NONE;
+
+    /**
+     * 数字切换动画时长
+     */
+    private long transitionDuration = DEF_TRANSITION_DURATION;
+
+    private Bitmap mSnapshot;
+
+    private Canvas mSnapshotCanvas;
+
+    /**
+     * 快照需要整体重绘, 样式或布局变化后置为 true
+     */
+    private boolean mSnapshotInvalid = true;
+
+    /**
+     * 显示毫秒时的计时间隔
      */
     private long millisInFuture = DEF_MILLIS_IN_FUTURE;
 
     /**
-     * 计时器初始化时间
+     * 时间模式
+     */
+    private int timeMode = TIME_MODE_DURATION;
+
+    /**
+     * 日历和时钟模式使用的时区
+     */
+    private TimeZone timeZone;
+
+    /**
+     * 墙上时间与单调时钟的差在该范围内变化时认为系统时间没有被修改(网络校时的微调)
+     */
+    private static final long WALL_CLOCK_TOLERANCE = 1000;
+
+    /**
+     * 没有指定时区, 跟随系统时区
+     */
+    private boolean mDefaultTimeZone;
+
+    /**
+     * 日历和时钟模式下监听系统时间和时区的修改, 只在添加到窗口期间注册
      */
-    private long mTimerInitializationTime;
+    private final BroadcastReceiver mTimeChangedReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            onSystemTimeChanged(Intent.ACTION_TIMEZONE_CHANGED.equals(intent.getAction()));
+        }
+    };
+
+    private boolean mTimeChangedRegistered;
+
+    /**
+     * 通过 {@link #bind(CountdownRegistry, long, CompiledFormat)} 绑定前的时间源和计时方向, 没有绑定时为 null
+     */
+    private TimeSource mSourceBeforeRegistry;
+    private boolean mCountdownBeforeRegistry;
+
+    /**
+     * 计时锚点, 保存计时状态
+     */
+    private TimeAnchor mTimeAnchor;
 
     /**
      * 视图宽
@@ -191,7 +319,7 @@ public class TimeIndicatorView extends View {
      */
     private long startTime = 0;
 
-    private List<FormatNode> formatNodes;
+    private CompiledFormat mCompiledFormat = CompiledFormat.EMPTY;
 
     private Paint mTimeTextPaint;
 
@@ -201,17 +329,107 @@ public class TimeIndicatorView extends View {
 
     private RectF mPointerRectF;
 
-    private Rect mMeasureRect;
+    private TextMetricsCache.Metrics mTimeMetrics;
+
+    private TextMetricsCache.Metrics mSuffixMetrics;
+
+    /**
+     * 当前使用的预计算布局, 格式或参数变化后清空
+     */
+    private PrecomputedIndicator mPrecomputed;
+
+    /**
+     * 节点管理, 布局和刷新计算, 不依赖 Android
+     */
+    private final IndicatorLayout mLayout = new IndicatorLayout();
 
     private List<NodeRect> nodeRectList;
 
-    private CountDownTimer mCountDownTimer;
+    private TickScheduler mTickScheduler;
+
+    /**
+     * 时间拆分器, 默认为时长模式
+     */
+    private TimeDecomposer mTimeDecomposer;
+
+    /**
+     * {@link #apply(TimeIndicatorSpec)} 比较样式时复用
+     */
+    private final TimeIndicatorSpec.Builder mCurrentSpec = new TimeIndicatorSpec.Builder();
+
+    /**
+     * 为 true 时写入内容不立即请求布局和重绘, 由 {@link #apply(TimeIndicatorSpec)} 统一请求
+     */
+    private boolean mDeferInvalidate;
+
+    /**
+     * 由全局时钟弱引用, 只被当前视图强引用
+     */
+    private final TimeIndicatorClock.Subscriber mClockSubscriber =
+            new TimeIndicatorClock.Subscriber() {
+                @Override
+                public long onClockTick(long now) {
+                    //默认时间源与全局时钟一致, 直接使用分发的时间戳
+                    TimeSource source = mTimeAnchor.getTimeSource();
+                    long sourceNow = source == SystemTimeSource.INSTANCE ? now : source.now();
+
+                    TimeIndicatorMetrics metrics = getActiveMetrics();
+                    if (metrics != null) {
+                        long lateness = Math.max(0, sourceNow - mNextTickDue);
+                        long granularity = mTickScheduler.getGranularity();
+                        if (mTickScheduler.hasMilliseconds()) {
+                            //帧回调最早在到期后的第一帧, 一帧以内不算迟到, 按帧计算丢掉的次数
+                            granularity = mClock.getFramePeriod();
+                            if (lateness < granularity) lateness = 0;
+                        }
+                        int dropped = granularity > 0 ? (int) Math.min(Integer.MAX_VALUE,
+                                lateness / granularity) : 0;
+                        metrics.onTick(TimeIndicatorView.this, lateness, dropped);
+                    }
+
+                    return scheduleTick(sourceNow, frameDelay(onTimerTick(sourceNow, true)));
+                }
+            };
+
+    /**
+     * 窗口, 可见性和页面生命周期状态以及时钟订阅, 状态变化时重新订阅
+     */
+    private final ClockBinding mClock = new ClockBinding(this, mClockSubscriber, new Runnable() {
+        @Override
+        public void run() {
+            updateTimer();
+        }
+    });
+
+    /**
+     * 没有内容变化而跳过的刷新次数
+     */
+    private long mSkippedInvalidateCount;
+
+    /**
+     * 全局运行数据回调
+     */
+    private static TimeIndicatorMetrics sGlobalMetrics;
+
+    /**
+     * 当前视图的运行数据回调, 优先于全局回调
+     */
+    private TimeIndicatorMetrics mMetrics;
 
-    private final DecimalFormat df1 = new DecimalFormat("00");
+    /**
+     * 预定的下一次刷新时间, 时间源读数, 用于计算迟到时间
+     */
+    private long mNextTickDue;
 
-    private final DecimalFormat df2 = new DecimalFormat("000");
+    /**
+     * 本帧的动画时间, 一次绘制中所有格子使用同一个时间
+     */
+    private long mFrameTime;
 
-    private final DecimalFormat df3 = new DecimalFormat("0000");
+    /**
+     * 有指针变化而刷新的次数
+     */
+    private long mInvalidateCount;
 
     public TimeIndicatorView(Context context) {
         super(context);
@@ -232,49 +450,43 @@ public class TimeIndicatorView extends View {
         TypedArray ta = context.getTheme().obtainStyledAttributes(attrs,
                 R.styleable.TimeIndicator, defStyleAttr, 0);
 
-        isCountdown = ta.getBoolean(R.styleable.TimeIndicator_tiIsCountdown, DEF_IS_COUNTDOWN);
-        dataFormat = ta.getString(R.styleable.TimeIndicator_tiDataFormat);
-        dataFormat = TextUtils.isEmpty(dataFormat) ? DEF_DATA_FORMAT : dataFormat;
-        pointerBackgroundColor = ta.getColor(R.styleable.TimeIndicator_tiPointerBackgroundColor
-                , DEF_POINTER_BACKGROUND_COLOR);
-        pointerTextColor = ta.getColor(R.styleable.TimeIndicator_tiPointerTextColor, DEF_TEXT_COLOR);
-        pointerTextSize = ta.getDimensionPixelSize(R.styleable.TimeIndicator_tiPointerTextSize
-                , DEF_TEXT_SIZE);
-        pointerTextStyle = ta.getInt(R.styleable.TimeIndicator_tiPointerTextStyle,
-                DEF_TEXT_STYLE);
-        pointerRadius = ta.getDimensionPixelSize(R.styleable.TimeIndicator_tiPointerRadius,
-                DEF_POINTER_RADIUS);
-        pointerWidth = ta.getDimensionPixelSize(R.styleable.TimeIndicator_tiPointerWidth
-                , 28);
-        pointerHeight = ta.getDimensionPixelSize(R.styleable.TimeIndicator_tiPointerHeight
-                , 28);
-        suffixTextColor = ta.getColor(R.styleable.TimeIndicator_tiSuffixTextColor, DEF_TEXT_COLOR);
-        suffixTextSize = ta.getDimensionPixelSize(R.styleable.TimeIndicator_tiSuffixTextSize
-                , DEF_TEXT_SIZE);
-        suffixTextStyle = ta.getInt(R.styleable.TimeIndicator_tiSuffixTextStyle, DEF_TEXT_STYLE);
-        suffixMarginLeft = ta.getDimensionPixelSize(R.styleable.TimeIndicator_tiSuffixMarginLeft
-                , 0);
-        suffixMarginRight = ta.getDimensionPixelSize(R.styleable.TimeIndicator_tiSuffixMarginRight
-                , 0);
-
-        nodeRectList = new ArrayList<>();
+        TimeIndicatorSpec spec = TimeIndicatorSpec.from(ta);
+        isCountdown = spec.countdown;
+        dataFormat = spec.format.getPattern();
+        setStyleFields(spec);
+        digitCells = ta.getBoolean(R.styleable.TimeIndicator_tiDigitCells, false);
+        digitCellSpacing = ta.getDimensionPixelSize(R.styleable.TimeIndicator_tiDigitCellSpacing, 0);
+        snapshotCache = ta.getBoolean(R.styleable.TimeIndicator_tiSnapshotCache, false);
+        digitTransition = ta.getInt(R.styleable.TimeIndicator_tiDigitTransition, TRANSITION_NONE);
+        transitionDuration = ta.getInt(R.styleable.TimeIndicator_tiTransitionDuration,
+                DEF_TRANSITION_DURATION);
+        mClock.setMaxFrameRate(ta.getInt(R.styleable.TimeIndicator_tiMaxFrameRate, 0));
+        timeMode = ta.getInt(R.styleable.TimeIndicator_tiTimeMode, TIME_MODE_DURATION);
+        String timeZoneId = ta.getString(R.styleable.TimeIndicator_tiTimeZone);
+        mDefaultTimeZone = timeZoneId == null;
+        timeZone = mDefaultTimeZone ? TimeZone.getDefault() : TimeZone.getTimeZone(timeZoneId);
+
+        nodeRectList = mLayout.getNodes();
+        syncLayoutParams();
+
+        mTimeDecomposer = newTimeDecomposer();
+        mTickScheduler = new TickScheduler(millisInFuture);
+        mTickScheduler.setDecomposer(mTimeDecomposer);
+        mTimeAnchor = new TimeAnchor(SystemTimeSource.INSTANCE);
+        if (timeMode == TIME_MODE_WALL_CLOCK) {
+            startWallClock();
+        } else {
+            mTimeAnchor.reset(startTime, isCountdown);
+        }
 
         mTimeTextPaint = new Paint();
         mSuffixTextPaint = new Paint();
         mTimePointerPaint = new Paint();
 
         mTimeTextPaint.setAntiAlias(true);
-        mTimeTextPaint.setColor(pointerTextColor);
-        mTimeTextPaint.setTextSize(pointerTextSize);
-        setTypeface(mTimeTextPaint, pointerTextStyle);
-
         mSuffixTextPaint.setAntiAlias(true);
-        mSuffixTextPaint.setColor(suffixTextColor);
-        mSuffixTextPaint.setTextSize(suffixTextSize);
-        setTypeface(mSuffixTextPaint, suffixTextStyle);
-
         mTimePointerPaint.setAntiAlias(true);
-        mTimePointerPaint.setColor(pointerBackgroundColor);
+        spec.applyPaints(mTimeTextPaint, mSuffixTextPaint, mTimePointerPaint);
 
         parsingDataFormatNode();
 
@@ -288,18 +500,190 @@ public class TimeIndicatorView extends View {
      */
     public void setDataFormat(String dataFormat) {
         this.dataFormat = dataFormat;
+        mPrecomputed = null;
 
         parsingDataFormatNode();
 
-        setTimeDataToNodeRect(startTime);
-
+        requestLayout();
         invalidate();
     }
 
     /**
-     * 设置是否为倒计时
+     * 设置时间拆分器, 例如 {@link DurationDecomposer} 或 {@link CalendarDecomposer}
+     */
+    public void setTimeDecomposer(TimeDecomposer decomposer) {
+        mTimeDecomposer = decomposer == null ? new DurationDecomposer() : decomposer;
+        mTickScheduler.setDecomposer(mTimeDecomposer);
+
+        setTimeDataToNodeRect(mTimeAnchor.currentTime());
+        //字段变化时刻随拆分方式变化, 重新对齐
+        updateTimer();
+    }
+
+    public TimeDecomposer getTimeDecomposer() {
+        return mTimeDecomposer;
+    }
+
+    /**
+     * 设置时间模式
+     * <p>
+     * 时钟模式显示当前时刻并立即开始, 添加到窗口期间跟随系统时间和时区的修改.
+     * 离开时钟模式后回到起始时间 0 并停止计时.
+     *
+     * @param mode {@link #TIME_MODE_DURATION}, {@link #TIME_MODE_CALENDAR} 或 {@link #TIME_MODE_WALL_CLOCK}
+     */
+    public void setTimeMode(int mode) {
+        int previous = timeMode;
+        timeMode = mode;
+        if (mode == TIME_MODE_WALL_CLOCK) {
+            startWallClock();
+        } else if (previous == TIME_MODE_WALL_CLOCK) {
+            startTime = 0;
+            buildTimer();
+        }
+        setTimeDecomposer(newTimeDecomposer());
+        updateTimeChangedReceiver();
+    }
+
+    public int getTimeMode() {
+        return timeMode;
+    }
+
+    /**
+     * 设置日历和时钟模式使用的时区, 夏令时切换时刻会预先算好
+     *
+     * @param timeZone 为 null 时使用系统时区, 并跟随系统时区的修改
+     */
+    public void setTimeZone(TimeZone timeZone) {
+        mDefaultTimeZone = timeZone == null;
+        this.timeZone = mDefaultTimeZone ? TimeZone.getDefault() : timeZone;
+        if (timeMode != TIME_MODE_DURATION) {
+            setTimeDecomposer(newTimeDecomposer());
+        }
+    }
+
+    public TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    /**
+     * 显示时间源读数加上当前墙上时间与它的差, 系统时间被修改后重新调用.
+     * 自定义时间源(例如 {@link ServerTimeOffset})的读数直接作为墙上时间.
+     */
+    private void startWallClock() {
+        long offset = mTimeAnchor.getTimeSource() == SystemTimeSource.INSTANCE
+                ? System.currentTimeMillis() - SystemClock.elapsedRealtime()
+                : 0;
+        isCountdown = false;
+        mTimeAnchor.follow(offset);
+    }
+
+    private TimeDecomposer newTimeDecomposer() {
+        return timeMode == TIME_MODE_DURATION
+                ? new DurationDecomposer() : new CalendarDecomposer(timeZone);
+    }
+
+    /**
+     * 系统时间或时区被修改: 时钟模式重新取墙上时间, 跟随系统时区时换成新的时区
+     */
+    private void onSystemTimeChanged(boolean timeZoneChanged) {
+        if (timeMode == TIME_MODE_DURATION) return;
+
+        if (timeMode == TIME_MODE_WALL_CLOCK) {
+            startWallClock();
+        }
+        if (timeZoneChanged && mDefaultTimeZone) {
+            timeZone = TimeZone.getDefault();
+        }
+        //重新拆分并对齐下一次变化的时刻
+        setTimeDecomposer(newTimeDecomposer());
+    }
+
+    /**
+     * 时钟模式下墙上时间与单调时钟的差是否已经偏离开始时超过 {@link #WALL_CLOCK_TOLERANCE}
+     */
+    private boolean isWallClockMoved() {
+        if (timeMode != TIME_MODE_WALL_CLOCK
+                || mTimeAnchor.getTimeSource() != SystemTimeSource.INSTANCE) return false;
+
+        long offset = System.currentTimeMillis() - SystemClock.elapsedRealtime();
+        return Math.abs(offset - mTimeAnchor.getStartTime()) > WALL_CLOCK_TOLERANCE;
+    }
+
+    /**
+     * 添加到窗口且处于日历或时钟模式时注册时间修改的广播, 否则注销
+     */
+    private void updateTimeChangedReceiver() {
+        boolean register = isAttachedToWindow() && timeMode != TIME_MODE_DURATION;
+        if (register == mTimeChangedRegistered) return;
+        mTimeChangedRegistered = register;
+
+        if (register) {
+            IntentFilter filter = new IntentFilter();
+            filter.addAction(Intent.ACTION_TIME_CHANGED);
+            filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+            getContext().registerReceiver(mTimeChangedReceiver, filter);
+
+            //未添加到窗口期间可能错过了修改
+            boolean zoneChanged = mDefaultTimeZone
+                    && !timeZone.getID().equals(TimeZone.getDefault().getID());
+            if (zoneChanged || isWallClockMoved()) {
+                onSystemTimeChanged(zoneChanged);
+            }
+        } else {
+            getContext().unregisterReceiver(mTimeChangedReceiver);
+        }
+    }
+
+    /**
+     * 设置数字是否等宽排列
+     * <p>
+     * 等宽时文字位置只在样式或格式变化时计算一次, 计时刷新不会改变任何位置
+     */
+    public void setFixedDigitWidth(boolean fixedDigitWidth) {
+        if (this.fixedDigitWidth != fixedDigitWidth) {
+            this.fixedDigitWidth = fixedDigitWidth;
+            mPrecomputed = null;
+            syncLayoutParams();
+
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    public boolean isFixedDigitWidth() {
+        return fixedDigitWidth;
+    }
+
+    /**
+     * 设置每个数字是否使用单独的指针格子
+     * <p>
+     * 开启后每个数字占一个 tiPointerWidth 宽的格子, 数字和后缀从共用的字形图集中贴图绘制,
+     * 绘制时不经过文字排版, 数字位置按像素固定. 该模式下不使用数字切换动画.
+     *
+     * @param spacing 同一字段相邻数字格子的间距
+     */
+    public void setDigitCells(boolean enabled, int spacing) {
+        if (digitCells != enabled || digitCellSpacing != spacing) {
+            digitCells = enabled;
+            digitCellSpacing = spacing;
+            mPrecomputed = null;
+            syncLayoutParams();
+
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    public boolean isDigitCellsEnabled() {
+        return digitCells;
+    }
+
+    /**
+     * 设置是否为倒计时, 停止计时并回到起始时间; 时钟模式下始终正计时, 只重新对齐当前时刻
      */
     public void setIsCountdown(boolean isCountdown) {
+        mSourceBeforeRegistry = null;
         this.isCountdown = isCountdown;
 
         buildTimer();
@@ -313,6 +697,7 @@ public class TimeIndicatorView extends View {
 
         if (mTimeTextPaint != null) {
             mTimeTextPaint.setColor(pointerTextColor);
+            mSnapshotInvalid = true;
 
             invalidate();
         }
@@ -326,6 +711,8 @@ public class TimeIndicatorView extends View {
 
         if (mTimeTextPaint != null) {
             mTimeTextPaint.setTextSize(pointerTextSize);
+            mTimeMetrics = null;
+            mPrecomputed = null;
 
             requestLayout();
         }
@@ -343,6 +730,7 @@ public class TimeIndicatorView extends View {
 
         if (mSuffixTextPaint != null) {
             mSuffixTextPaint.setColor(suffixTextColor);
+            mSnapshotInvalid = true;
 
             invalidate();
         }
@@ -358,6 +746,8 @@ public class TimeIndicatorView extends View {
 
         if (mSuffixTextPaint != null) {
             mSuffixTextPaint.setTextSize(suffixTextSize);
+            mSuffixMetrics = null;
+            mPrecomputed = null;
 
             requestLayout();
         }
@@ -367,20 +757,103 @@ public class TimeIndicatorView extends View {
         return suffixTextSize;
     }
 
-    private void setTypeface(Paint textPaint, int style) {
-        if (style > 0) {
-            textPaint.setFakeBoldText(true);
-            textPaint.setTextSkewX(0);
-        } else {
-            textPaint.setFakeBoldText(false);
-            textPaint.setTextSkewX(0);
+    /**
+     * 当前样式
+     */
+    public TimeIndicatorSpec getSpec() {
+        return writeSpec(new TimeIndicatorSpec.Builder()).build();
+    }
+
+    /**
+     * 把当前样式写入 builder
+     */
+    private TimeIndicatorSpec.Builder writeSpec(TimeIndicatorSpec.Builder builder) {
+        return builder.setFormat(mCompiledFormat)
+                .setCountdown(isCountdown)
+                .setPointerBackgroundColor(pointerBackgroundColor)
+                .setPointerRadius(pointerRadius)
+                .setPointerSize(pointerWidth, pointerHeight)
+                .setTimeText(pointerTextColor, pointerTextSize, pointerTextStyle)
+                .setSuffixText(suffixTextColor, suffixTextSize, suffixTextStyle)
+                .setSuffixMargin(suffixMarginLeft, suffixMarginRight)
+                .setFixedDigitWidth(fixedDigitWidth);
+    }
+
+    /**
+     * 一次应用全部样式, 只比较与当前不同的部分, 最多触发一次重新布局和一次重绘.
+     * 样式与当前相同时直接返回, 格式不变时不产生新对象
+     * <p>
+     * 先写入全部属性, 再重新对齐一次计时器(只拆分一次时间), 最后统一请求布局和重绘.
+     * 计时方向变化时与 {@link #setIsCountdown(boolean)} 相同, 会停止计时并回到起始时间,
+     * 时钟模式下只重新对齐当前时刻.
+     */
+    public void apply(TimeIndicatorSpec spec) {
+        int changes = spec.diff(writeSpec(mCurrentSpec));
+        if (changes == 0) return;
+
+        setStyleFields(spec);
+        spec.applyPaints(mTimeTextPaint, mSuffixTextPaint, mTimePointerPaint);
+
+        if ((changes & TimeIndicatorSpec.CHANGED_TIME_METRICS) != 0) mTimeMetrics = null;
+        if ((changes & TimeIndicatorSpec.CHANGED_SUFFIX_METRICS) != 0) mSuffixMetrics = null;
+        boolean layoutChanged = (changes & TimeIndicatorSpec.CHANGED_LAYOUT) != 0;
+        if (layoutChanged) {
+            mPrecomputed = null;
+            syncLayoutParams();
+        }
+        if ((changes & TimeIndicatorSpec.CHANGED_FORMAT) != 0) {
+            dataFormat = spec.format.getPattern();
+            mCompiledFormat = spec.format;
+            allocateNodes();
         }
+        isCountdown = spec.countdown;
+
+        //写入内容时只标记变化, 最后统一请求
+        mDeferInvalidate = true;
+        try {
+            if ((changes & TimeIndicatorSpec.CHANGED_COUNTDOWN) != 0) {
+                buildTimer();
+            } else if ((changes & TimeIndicatorSpec.CHANGED_FORMAT) != 0) {
+                //格式变化后重新对齐刷新时刻
+                refreshTimer();
+            }
+        } finally {
+            mDeferInvalidate = false;
+        }
+
+        if (layoutChanged || mLayout.needsLayout()) {
+            requestLayout();
+        }
+        mSnapshotInvalid = true;
+        invalidate();
+    }
+
+    /**
+     * 复制样式中的文字和指针属性, 不包括格式和计时方向
+     */
+    private void setStyleFields(TimeIndicatorSpec spec) {
+        pointerBackgroundColor = spec.pointerBackgroundColor;
+        pointerTextColor = spec.pointerTextColor;
+        pointerTextSize = spec.pointerTextSize;
+        pointerTextStyle = spec.pointerTextStyle;
+        pointerRadius = spec.pointerRadius;
+        pointerWidth = spec.pointerWidth;
+        pointerHeight = spec.pointerHeight;
+        suffixTextColor = spec.suffixTextColor;
+        suffixTextSize = spec.suffixTextSize;
+        suffixTextStyle = spec.suffixTextStyle;
+        suffixMarginLeft = spec.suffixMarginLeft;
+        suffixMarginRight = spec.suffixMarginRight;
+        fixedDigitWidth = spec.fixedDigitWidth;
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
 
+        TimeIndicatorMetrics metrics = getActiveMetrics();
+        long start = metrics != null ? System.nanoTime() : 0;
+
         int widthMode = MeasureSpec.getMode(widthMeasureSpec);
         int heightMode = MeasureSpec.getMode(heightMeasureSpec);
 
@@ -390,54 +863,29 @@ public class TimeIndicatorView extends View {
         int ctw = 0;
         int cth = 0;
 
-        //先算高度
-        if (heightMode == MeasureSpec.AT_MOST) {
-            int th;
-            int sh;
-
-            th = getPaddingTop() + getPaddingBottom() + pointerHeight;
+        //使用预计算的布局时, 度量来自预计算结果
+        TextMetricsCache.Metrics timeMetrics = getTimeMetrics();
+        TextMetricsCache.Metrics suffixMetrics = getSuffixMetrics();
 
-            Rect bounds = getMeasureRect(mMeasureRect);
-            mSuffixTextPaint.getTextBounds("0", 0, "0".length(), bounds);
-            sh = getPaddingTop() + getPaddingBottom() + bounds.height();
+        syncLayoutParams();
 
-            cth = Math.max(th, sh);
+        //先算高度
+        if (heightMode == MeasureSpec.AT_MOST) {
+            int contentHeight = mPrecomputed != null
+                    ? mPrecomputed.getContentHeight() : mLayout.getContentHeight(suffixMetrics);
+            cth = getPaddingTop() + getPaddingBottom() + contentHeight;
 
             mViewHeight = cth;
         } else {
             mViewHeight = thSpec;
         }
 
-        ctw = getPaddingLeft();
-
-        for (NodeRect nodeRect : nodeRectList) {
-            Rect bounds = getMeasureRect(mMeasureRect);
-            if (nodeRect.isPointer) {
-                mTimeTextPaint.getTextBounds(nodeRect.text, 0, nodeRect.text.length(), bounds);
-
-                int textW = bounds.width();
-                int textH = bounds.height();
-
-                nodeRect.bl = ctw;
-                nodeRect.bt = getPaddingTop();
-                nodeRect.br = ctw + pointerWidth;
-                nodeRect.bb = getPaddingTop() + pointerHeight;
-
-                nodeRect.tx = (int) (ctw + ((float) (pointerWidth - textW) / 2));
-                nodeRect.ty = (int) (((float) pointerHeight) / 2 + ((float) textH) / 2);
-
-                ctw = ctw + pointerWidth;
-            } else {
-                mSuffixTextPaint.getTextBounds(nodeRect.format, 0, nodeRect.format.length(), bounds);
-
-                int textW = bounds.width();
-                int textH = bounds.height();
-
-                nodeRect.tx = ctw + suffixMarginLeft;
-                nodeRect.ty = (int) (((float) pointerHeight) / 2 + ((float) textH) / 2);
-
-                ctw = ctw + suffixMarginLeft + textW + suffixMarginRight;
-            }
+        //预计算的位置只需平移, 数字格子不够时仍然完整测量; 文字基线与指针框一起按 paddingTop 下移
+        if (mPrecomputed != null && mLayout.applyGeometry(mPrecomputed.getGeometry(), timeMetrics,
+                getPaddingLeft(), getPaddingTop())) {
+            ctw = getPaddingLeft() + mPrecomputed.getContentWidth();
+        } else {
+            ctw = mLayout.measure(timeMetrics, suffixMetrics, getPaddingLeft(), getPaddingTop());
         }
 
         ctw = ctw + getPaddingRight();
@@ -448,114 +896,625 @@ public class TimeIndicatorView extends View {
             mViewWidth = twSpec;
         }
 
+        mSnapshotInvalid = true;
+
+        if (digitCells) {
+            //图集在测量时准备好, 绘制时只贴图
+            getTimeAtlas();
+            getSuffixAtlas();
+        }
+
         // 设置控件的宽高，这里就是给文字设置宽高
         setMeasuredDimension(mViewWidth, mViewHeight);
+
+        if (metrics != null) metrics.onMeasure(this, System.nanoTime() - start);
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
-        if (canvas != null)
+        TimeIndicatorMetrics metrics = getActiveMetrics();
+        if (metrics == null) {
+            drawContent(canvas);
+            return;
+        }
 
-            if (nodeRectList != null) {
-                for (NodeRect rect : nodeRectList) {
-                    if (rect.isPointer) {
-                        mPointerRectF = getPointerRectF(rect.bl, rect.bt, rect.br, rect.bb);
-                        canvas.drawRoundRect(mPointerRectF, pointerRadius, pointerRadius,
-                                mTimePointerPaint);
-
-                        if (!TextUtils.isEmpty(rect.text))
-                            canvas.drawText(rect.text, rect.tx, rect.ty, mTimeTextPaint);
-                    } else {
-                        if (!TextUtils.isEmpty(rect.format))
-                            canvas.drawText(rect.format, rect.tx, rect.ty, mSuffixTextPaint);
-                    }
-                }
-            }
+        long start = System.nanoTime();
+        drawContent(canvas);
+        metrics.onDraw(this, System.nanoTime() - start);
     }
 
-    public void setStartTime(long time) {
-        startTime = time;
+    private void drawContent(Canvas canvas) {
+        if (canvas != null)
 
-        buildTimer();
+            if (nodeRectList != null) {
+                mFrameTime = digitTransition == TRANSITION_NONE ? 0
+                        : AnimationUtils.currentAnimationTimeMillis();
 
-        setTimeDataToNodeRect(startTime);
-    }
+                if (snapshotCache && updateSnapshot()) {
+                    canvas.drawBitmap(mSnapshot, 0, 0, null);
+                    invalidateTransitions();
+                    return;
+                }
 
-    public void start() {
-        if (mCountDownTimer != null)
-            mCountDownTimer.start();
-    }
+                for (int i = 0, size = nodeRectList.size(); i < size; i++) {
+                    NodeRect rect = nodeRectList.get(i);
+                    //跳过被裁剪掉的节点, 例如在滚动容器中只露出一部分
+                    if (quickReject(canvas, rect))
+                        continue;
 
-    public void stop() {
-        if (mCountDownTimer != null)
-            mCountDownTimer.cancel();
+                    drawNode(canvas, rect);
+                }
+                invalidateTransitions();
+            }
     }
 
     /**
-     * 构建计时器
+     * 节点是否完全在画布的裁剪区域之外
      */
-    private void buildTimer() {
-        if (isCountdown) {
-            //倒计时
-            mTimerInitializationTime = startTime;
-        } else {
-            //顺时针
-            mTimerInitializationTime = Long.MAX_VALUE;
+    @SuppressWarnings("deprecation")
+    static boolean quickReject(Canvas canvas, NodeRect rect) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            return canvas.quickReject(rect.bl, rect.bt, rect.br, rect.bb);
         }
+        return canvas.quickReject(rect.bl, rect.bt, rect.br, rect.bb, Canvas.EdgeType.BW);
+    }
 
-        if (null != mCountDownTimer) {
-            mCountDownTimer.cancel();
-            mCountDownTimer = null;
-        }
+    /**
+     * 仍有格子在切换动画中时, 下一帧继续重绘
+     */
+    private void invalidateTransitions() {
+        if (digitTransition == TRANSITION_NONE || digitCells) return;
 
-        mCountDownTimer = new CountDownTimer(mTimerInitializationTime, millisInFuture) {
-            @Override
-            public void onTick(long millisUntilFinished) {
-                if (isCountdown) {
-                    setTimeDataToNodeRect(millisUntilFinished);
-                } else {
-                    setTimeDataToNodeRect(mTimerInitializationTime - millisUntilFinished + startTime);
+        boolean animating = false;
+        for (int i = 0, size = nodeRectList.size(); i < size; i++) {
+            NodeRect rect = nodeRectList.get(i);
+            if (rect.transitionStart < 0) continue;
+
+            //快照中的格子在动画结束前每一帧都要重绘
+            rect.dirty = true;
+            animating = true;
+        }
+        if (animating) {
+            postInvalidateOnAnimation();
+        }
+    }
+
+    private void drawNode(Canvas canvas, NodeRect rect) {
+        if (digitCells) {
+            drawNodeCells(canvas, rect);
+            return;
+        }
+
+        if (rect.isPointer) {
+            mPointerRectF = getPointerRectF(rect.bl, rect.bt, rect.br, rect.bb);
+            canvas.drawRoundRect(mPointerRectF, pointerRadius, pointerRadius,
+                    mTimePointerPaint);
+
+            if (rect.length > 0) {
+                if (rect.transitionStart >= 0) {
+                    float progress = PointerTextPainter.progress(mFrameTime - rect.transitionStart,
+                            transitionDuration);
+                    if (progress < 1f) {
+                        PointerTextPainter.drawTransition(canvas, rect, mTimeTextPaint,
+                                getTimeMetrics(), fixedDigitWidth,
+                                digitTransition == TRANSITION_FLIP, progress);
+                        return;
+                    }
+                    rect.transitionStart = -1;
                 }
+                PointerTextPainter.drawStatic(canvas, rect, mTimeTextPaint, getTimeMetrics(),
+                        fixedDigitWidth);
             }
+        } else {
+            if (!TextUtils.isEmpty(rect.format))
+                canvas.drawText(rect.format, rect.tx, rect.ty, mSuffixTextPaint);
+        }
+    }
 
-            @Override
-            public void onFinish() {
+    /**
+     * 每个数字单独一个格子, 数字靠右对齐, 位数不足时左侧格子留空
+     */
+    private void drawNodeCells(Canvas canvas, NodeRect rect) {
+        if (!rect.isPointer) {
+            if (!TextUtils.isEmpty(rect.format))
+                getSuffixAtlas().drawText(canvas, rect.format, rect.tx, rect.ty, mSuffixTextPaint,
+                        mGlyphDst);
+            return;
+        }
 
+        GlyphAtlas atlas = getTimeAtlas();
+        int slotOffset = (pointerWidth - atlas.getDigitSlot()) / 2;
+        int first = rect.length - rect.cells;
+        for (int k = 0; k < rect.cells; k++) {
+            int left = rect.bl + k * (pointerWidth + digitCellSpacing);
+            mPointerRectF = getPointerRectF(left, rect.bt, left + pointerWidth, rect.bb);
+            canvas.drawRoundRect(mPointerRectF, pointerRadius, pointerRadius, mTimePointerPaint);
+
+            int index = first + k;
+            if (index >= 0) {
+                atlas.drawDigit(canvas, rect.chars[index], left + slotOffset, rect.ty,
+                        mTimeTextPaint, mGlyphDst);
             }
-        };
+        }
+    }
+
+    /**
+     * 更新快照缓存: 样式或布局变化时整体重绘, 否则只重绘内容变化的指针格子
+     *
+     * @return 快照是否可用
+     */
+    private boolean updateSnapshot() {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) return false;
+
+        if (mSnapshot == null || mSnapshot.getWidth() != width || mSnapshot.getHeight() != height) {
+            releaseSnapshot();
+            mSnapshot = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            mSnapshotCanvas = new Canvas(mSnapshot);
+
+            TimeIndicatorMetrics metrics = getActiveMetrics();
+            if (metrics != null) metrics.onSnapshotAllocated(this, (long) width * height * 4);
+            mSnapshotInvalid = true;
+        }
+
+        if (mSnapshotInvalid) {
+            mSnapshot.eraseColor(Color.TRANSPARENT);
+            for (int i = 0, size = nodeRectList.size(); i < size; i++) {
+                NodeRect rect = nodeRectList.get(i);
+                drawNode(mSnapshotCanvas, rect);
+                rect.dirty = false;
+            }
+            mSnapshotInvalid = false;
+            return true;
+        }
+
+        for (int i = 0, size = nodeRectList.size(); i < size; i++) {
+            NodeRect rect = nodeRectList.get(i);
+            if (rect.dirty) {
+                mSnapshotCanvas.save();
+                mSnapshotCanvas.clipRect(rect.bl, rect.bt, rect.br, rect.bb);
+                mSnapshotCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+                drawNode(mSnapshotCanvas, rect);
+                mSnapshotCanvas.restore();
+                rect.dirty = false;
+            }
+        }
+        return true;
+    }
+
+    private void releaseSnapshot() {
+        if (mSnapshot != null) {
+            mSnapshot.recycle();
+            mSnapshot = null;
+            mSnapshotCanvas = null;
+        }
+    }
+
+    /**
+     * 设置是否使用位图快照缓存
+     * <p>
+     * 适合停止计时或只显示较粗单位的指示器: 父视图重绘时直接绘制位图,
+     * 只有数字变化时才重绘对应的指针格子
+     */
+    public void setSnapshotCacheEnabled(boolean enabled) {
+        if (snapshotCache != enabled) {
+            snapshotCache = enabled;
+            if (!enabled) releaseSnapshot();
+            mSnapshotInvalid = true;
+
+            invalidate();
+        }
+    }
+
+    public boolean isSnapshotCacheEnabled() {
+        return snapshotCache;
+    }
+
+    /**
+     * 设置数字切换动画
+     * <p>
+     * 动画状态保存在每个指针格子中, 动画过程中只刷新正在切换的格子, 不产生新对象.
+     * 切换间隔短于动画时长时(例如显示毫秒), 新的切换会从头开始.
+     *
+     * @param type           {@link #TRANSITION_NONE}, {@link #TRANSITION_ROLL} 或 {@link #TRANSITION_FLIP}
+     * @param durationMillis 动画时长
+     */
+    public void setDigitTransition(int type, long durationMillis) {
+        digitTransition = type;
+        transitionDuration = durationMillis;
+
+        if (type == TRANSITION_NONE && nodeRectList != null) {
+            for (int i = 0, size = nodeRectList.size(); i < size; i++) {
+                nodeRectList.get(i).transitionStart = -1;
+            }
+            mSnapshotInvalid = true;
+            invalidate();
+        }
+    }
+
+    public int getDigitTransition() {
+        return digitTransition;
+    }
+
+    public long getTransitionDuration() {
+        return transitionDuration;
+    }
+
+    /**
+     * 设置显示毫秒时的最高帧率
+     * <p>
+     * 显示毫秒时按屏幕刷新逐帧计算, 每一帧只用帧时间算一次, 90/120Hz 屏幕同样逐帧刷新.
+     * 限制帧率(例如 30)时跳过中间的帧, 可以节省电量.
+     *
+     * @param fps 最高帧率, 0 表示跟随屏幕刷新率
+     */
+    public void setMaxFrameRate(int fps) {
+        if (fps < 0) fps = 0;
+        if (mClock.getMaxFrameRate() == fps) return;
+        mClock.setMaxFrameRate(fps);
+
+        if (mTickScheduler.hasMilliseconds()) updateTimer();
+    }
+
+    public int getMaxFrameRate() {
+        return mClock.getMaxFrameRate();
+    }
+
+    public void setStartTime(long time) {
+        startTime = time;
+        leaveRegistry();
+
+        buildTimer();
+    }
+
+    public void start() {
+        mTimeAnchor.start();
+
+        updateTimer();
+    }
+
+    /**
+     * 绑定列表项数据, 适合在 RecyclerView 的 onBindViewHolder 中调用
+     * <p>
+     * 倒计时显示距离 targetTime 的剩余时间, 否则显示从 targetTime 起已经过去的时间, 并立即开始计时.
+     * 格式与当前相同时复用已有的节点和时钟订阅, 不重新布局, 不产生新对象.
+     *
+     * @param targetTime 与时间源同一时间基准的目标时刻, 默认时间源为
+     *                   {@link android.os.SystemClock#elapsedRealtime()}
+     * @param format     由 {@link CompiledFormat#compile(String)} 得到, 同一格式应复用同一个对象
+     */
+    public void bind(long targetTime, CompiledFormat format) {
+        leaveRegistry();
+        bindTarget(targetTime, format);
+    }
+
+    private void bindTarget(long targetTime, CompiledFormat format) {
+        if (format != mCompiledFormat && !format.getPattern().equals(mCompiledFormat.getPattern())) {
+            dataFormat = format.getPattern();
+            mCompiledFormat = format;
+            mPrecomputed = null;
+            fillNodeRect();
+
+            requestLayout();
+            invalidate();
+        }
+
+        mTimeAnchor.startAt(targetTime, isCountdown);
+        updateTimer();
+        if (!isTimerActive()) {
+            //不在屏幕上时不订阅时钟, 只写入当前内容, 附加到窗口后再开始刷新
+            long time = mTimeAnchor.currentTime();
+            setTimeDataToNodeRect(isCountdown && time < 0 ? 0 : time);
+        }
+    }
+
+    /**
+     * 使用当前格式绑定列表项数据
+     *
+     * @see #bind(long, CompiledFormat)
+     */
+    public void bind(long targetTime) {
+        bind(targetTime, mCompiledFormat);
+    }
+
+    /**
+     * 以倒计时显示 registry 中 id 对应的截止时间, 视图只读取截止时间, 到期回调由 registry 统一分发
+     * <p>
+     * 视图会改用 registry 的时间源并切换为倒计时; id 不存在时显示 0. 之后调用 {@link #bind(long, CompiledFormat)}
+     * 或 {@link #setStartTime(long)} 时恢复绑定前的时间源和计时方向, 调用 {@link #setTimeSource(TimeSource)}
+     * 或 {@link #setIsCountdown(boolean)} 后以新设置为准, 不再恢复.
+     */
+    public void bind(CountdownRegistry registry, long id, CompiledFormat format) {
+        TimeSource source = registry.getTimeSource();
+        if (mSourceBeforeRegistry == null) {
+            mSourceBeforeRegistry = mTimeAnchor.getTimeSource();
+            mCountdownBeforeRegistry = isCountdown;
+        }
+        if (mTimeAnchor.getTimeSource() != source) {
+            mTimeAnchor.setTimeSource(source);
+        }
+        isCountdown = true;
+
+        long deadline = registry.getDeadline(id);
+        bindTarget(deadline == Long.MIN_VALUE ? source.now() : deadline, format);
+    }
+
+    /**
+     * 恢复绑定 registry 前的时间源和计时方向
+     */
+    private void leaveRegistry() {
+        if (mSourceBeforeRegistry == null) return;
+
+        mTimeAnchor.setTimeSource(mSourceBeforeRegistry);
+        isCountdown = mCountdownBeforeRegistry;
+        mSourceBeforeRegistry = null;
+    }
+
+    public void stop() {
+        mTimeAnchor.stop();
+        mClock.cancel();
+    }
+
+    /**
+     * 设置时间源, 默认为 {@link SystemTimeSource}
+     */
+    public void setTimeSource(TimeSource timeSource) {
+        mSourceBeforeRegistry = null;
+        mTimeAnchor.setTimeSource(timeSource == null ? SystemTimeSource.INSTANCE : timeSource);
+        if (timeMode == TIME_MODE_WALL_CLOCK) {
+            startWallClock();
+        }
+
+        updateTimer();
+    }
+
+    public TimeSource getTimeSource() {
+        return mTimeAnchor.getTimeSource();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        mClock.onAttachedToWindow();
+        updateTimeChangedReceiver();
+        updateTimer();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+
+        mClock.onDetachedFromWindow();
+        //此时 isAttachedToWindow() 仍为 true
+        if (mTimeChangedRegistered) {
+            mTimeChangedRegistered = false;
+            getContext().unregisterReceiver(mTimeChangedReceiver);
+        }
+
+        releaseSnapshot();
+    }
+
+    /**
+     * 保存格式, 时间模式, 时区, 计时方向和计时锚点, 需要给视图设置 id 才会保存
+     */
+    @Nullable
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState ss = new SavedState(super.onSaveInstanceState());
+        ss.dataFormat = dataFormat;
+        ss.timeMode = timeMode;
+        ss.timeZone = timeZone.getID();
+        ss.countdown = isCountdown;
+        ss.initialTime = startTime;
+        ss.running = mTimeAnchor.isRunning();
+        ss.startTime = mTimeAnchor.getStartTime();
+        ss.anchorTime = mTimeAnchor.getAnchorTime();
+        ss.sourceTime = mTimeAnchor.getTimeSource().now();
+        ss.wallTime = System.currentTimeMillis();
+        return ss;
+    }
+
+    /**
+     * 恢复后直接按锚点算出当前时间, 正在计时时从保存时的位置继续, 不需要重新设置起始时间
+     * <p>
+     * 时钟模式恢复后重新对齐当前时刻. 时间源和自定义的拆分器不会保存, 应在恢复前(例如 onCreate 中)重新设置.
+     */
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState ss = (SavedState) state;
+        super.onRestoreInstanceState(ss.getSuperState());
+
+        if (ss.timeMode != timeMode || !ss.timeZone.equals(timeZone.getID())) {
+            timeMode = ss.timeMode;
+            timeZone = TimeZone.getTimeZone(ss.timeZone);
+            mTimeDecomposer = newTimeDecomposer();
+            mTickScheduler.setDecomposer(mTimeDecomposer);
+        }
+
+        isCountdown = ss.countdown;
+        startTime = ss.initialTime;
+        if (ss.dataFormat != null && !ss.dataFormat.equals(dataFormat)) {
+            dataFormat = ss.dataFormat;
+            mCompiledFormat = CompiledFormat.compile(dataFormat);
+            mPrecomputed = null;
+            fillNodeRect();
+
+            requestLayout();
+            invalidate();
+        }
+
+        if (timeMode == TIME_MODE_WALL_CLOCK) {
+            startWallClock();
+        } else {
+            long anchorTime = ss.anchorTime;
+            if (ss.running) {
+                anchorTime = TimeAnchor.rebase(anchorTime, ss.sourceTime, ss.wallTime,
+                        mTimeAnchor.getTimeSource().now(), System.currentTimeMillis());
+            }
+            mTimeAnchor.restore(ss.startTime, ss.countdown, anchorTime, ss.running);
+        }
+
+        long time = mTimeAnchor.currentTime();
+        setTimeDataToNodeRect(isCountdown && time < 0 ? 0 : time);
+        updateTimer();
+    }
+
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+
+        mClock.onVisibilityAggregated(isVisible);
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+
+        mClock.onWindowVisibilityChanged(visibility);
+    }
+
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+
+        mClock.onVisibilityChanged();
+    }
+
+    /**
+     * 是否需要订阅时钟: 正在计时, 已添加到窗口, 可见且页面处于前台
+     */
+    private boolean isTimerActive() {
+        return mTimeAnchor.isRunning() && mClock.isActive();
+    }
+
+    /**
+     * 构建计时器, 时钟模式下没有起始时间和计时方向, 重新对齐当前时刻
+     */
+    private void buildTimer() {
+        stop();
+        if (timeMode == TIME_MODE_WALL_CLOCK) {
+            startWallClock();
+            refreshTimer();
+            return;
+        }
+        mTimeAnchor.reset(startTime, isCountdown);
 
         setTimeDataToNodeRect(startTime);
     }
 
+    /**
+     * 重新对齐刷新时刻并写入当前内容, 只拆分一次时间
+     */
+    private void refreshTimer() {
+        if (isTimerActive()) {
+            updateTimer();
+        } else {
+            mClock.cancel();
+            long time = mTimeAnchor.currentTime();
+            setTimeDataToNodeRect(isCountdown && time < 0 ? 0 : time);
+        }
+    }
+
+    /**
+     * 根据当前状态订阅或暂停全局时钟
+     * <p>
+     * 暂停时只取消订阅, 计时起点不变, 恢复时按真实经过的时间直接算出显示内容
+     */
+    private void updateTimer() {
+        if (!isTimerActive()) {
+            mClock.cancel();
+            return;
+        }
+
+        long now = mTimeAnchor.getTimeSource().now();
+        //订阅状态变化时立即刷新的内容是跳变, 不做过渡
+        long delay = scheduleTick(now, frameDelay(onTimerTick(now, false)));
+        if (delay < 0) return;
+
+        //显示毫秒时跟随屏幕刷新, 不再使用固定间隔
+        mClock.schedule(delay, mTickScheduler.getGranularity(), mTickScheduler.hasMilliseconds());
+    }
+
+    /**
+     * 显示毫秒时下一帧就会变化, 由帧率上限决定实际间隔
+     */
+    private long frameDelay(long delay) {
+        return delay >= 0 && mTickScheduler.hasMilliseconds() ? 0 : delay;
+    }
+
+    /**
+     * 记录预定的下一次刷新时间, 跟随屏幕刷新时与全局时钟一样按帧率上限推迟
+     */
+    private long scheduleTick(long now, long delay) {
+        if (delay >= 0) {
+            mNextTickDue = now + (mTickScheduler.hasMilliseconds()
+                    ? Math.max(delay, mClock.getMinFrameInterval()) : delay);
+        }
+        return delay;
+    }
+
+    /**
+     * 刷新显示
+     *
+     * @param now     时间源读数
+     * @param animate 是否为计时推进引起的变化, 只有这时才开始数字过渡
+     * @return 距离下一次显示内容变化的毫秒数, 小于0表示不再需要刷新
+     */
+    private long onTimerTick(long now, boolean animate) {
+        if (!mTimeAnchor.isRunning()) return -1;
+
+        long time = mTimeAnchor.timeAt(now);
+        if (isCountdown && time <= 0) {
+            setTimeDataToNodeRect(0, animate);
+            mTimeAnchor.stop();
+            return -1;
+        }
+
+        setTimeDataToNodeRect(time, animate);
+
+        return mTickScheduler.nextDelay(time, isCountdown);
+    }
+
     /**
      * 解析时间格式节点
      */
     private void parsingDataFormatNode() {
-        FormatNodeParser parser = new FormatNodeParser(dataFormat);
-        parser.parsing();
-        formatNodes = parser.getFormatNodes();
+        mCompiledFormat = CompiledFormat.compile(dataFormat);
 
         fillNodeRect();
+
+        //格式变化后重新对齐刷新时刻
+        updateTimer();
     }
 
     /**
      * 填充节点绘制工具
      */
     private void fillNodeRect() {
-        nodeRectList.clear();
-        if (formatNodes != null && formatNodes.size() != 0) {
-            for (FormatNode node : formatNodes) {
-                NodeRect nodeRect = new NodeRect();
-                nodeRect.isPointer = node.isPointer;
-                nodeRect.format = node.format;
-
-                nodeRectList.add(nodeRect);
-            }
-        }
+        allocateNodes();
 
-        setTimeDataToNodeRect(startTime);
+        setTimeDataToNodeRect(mTimeAnchor.currentTime());
+    }
+
+    /**
+     * 按格式分配节点, 不写入内容
+     */
+    private void allocateNodes() {
+        int allocated = mLayout.setFormat(mCompiledFormat);
+        mTickScheduler.setNodes(nodeRectList);
+        mSnapshotInvalid = true;
+        mSuffixAtlas = null;
+
+        TimeIndicatorMetrics metrics = getActiveMetrics();
+        if (metrics != null && allocated > 0) metrics.onNodesAllocated(this, allocated);
     }
 
     private RectF getPointerRectF(int l, int t, int r, int b) {
@@ -573,54 +1532,262 @@ public class TimeIndicatorView extends View {
         return rectF;
     }
 
-    private Rect getMeasureRect(Rect rect) {
-        if (rect == null)
-            mMeasureRect = new Rect();
-        return mMeasureRect;
+    /**
+     * 把布局相关的属性同步给 {@link IndicatorLayout}
+     */
+    private void syncLayoutParams() {
+        mLayout.setPointerSize(pointerWidth, pointerHeight);
+        mLayout.setSuffixMargin(suffixMarginLeft, suffixMarginRight);
+        mLayout.setFixedDigitWidth(fixedDigitWidth);
+        mLayout.setDigitCells(digitCells, digitCellSpacing);
     }
 
     /**
-     * 填充节点绘制工具写入数据
+     * 当前影响布局的参数, 用于在其他线程创建 {@link PrecomputedIndicator}
      */
-    private void setTimeDataToNodeRect(long time) {
-        int year = (int) (time / TIME_OF_YEAR);
-        int month = (int) ((time % TIME_OF_YEAR) / TIME_OF_MONTH);
-        int day = (int) ((time % TIME_OF_MONTH) / TIME_OF_DAY);
-        int hours = (int) ((time % TIME_OF_DAY) / TIME_OF_HOURS);
-        int minute = (int) ((time % TIME_OF_HOURS) / TIME_OF_MINUTE);
-        int seconds = (int) (time % TIME_OF_MINUTE) / TIME_OF_MILLISECOND;
-        int millisecond = (int) (time % TIME_OF_MILLISECOND);
-
-        String yearStr = df3.format(year);
-        String monthStr = df1.format(month);
-        String dayStr = df1.format(day);
-        String hoursStr = df1.format(hours);
-        String minuteStr = df1.format(minute);
-        String secondsStr = df1.format(seconds);
-        String millisecondStr = df2.format(millisecond);
-
-        if (nodeRectList != null) {
-            for (NodeRect rect : nodeRectList) {
-                if (YEARS.equals(rect.format)) {
-                    rect.text = yearStr;
-                } else if (MONTH.equals(rect.format)) {
-                    rect.text = monthStr;
-                } else if (DAY.equals(rect.format)) {
-                    rect.text = dayStr;
-                } else if (HOURS.equals(rect.format)) {
-                    rect.text = hoursStr;
-                } else if (MINUTE.equals(rect.format)) {
-                    rect.text = minuteStr;
-                } else if (SECONDS.equals(rect.format)) {
-                    rect.text = secondsStr;
-                } else if (MILLISECOND.equals(rect.format)) {
-                    rect.text = millisecondStr;
-                } else {
-                    rect.text = "00";
-                }
-            }
+    public PrecomputedIndicator.Params getIndicatorParams() {
+        return new PrecomputedIndicator.Params.Builder()
+                .setTimeText(pointerTextSize, pointerTextStyle > 0)
+                .setSuffixText(suffixTextSize, suffixTextStyle > 0)
+                .setPointerSize(pointerWidth, pointerHeight)
+                .setSuffixMargin(suffixMarginLeft, suffixMarginRight)
+                .setFixedDigitWidth(fixedDigitWidth)
+                .setDigitCells(digitCells, digitCellSpacing)
+                .build();
+    }
+
+    /**
+     * 使用预计算的布局, 同时设置时间格式. 主线程只复用节点并写入当前时间, 不再解析和测量文字.
+     *
+     * @throws IllegalArgumentException 预计算时的参数与视图当前参数不一致
+     */
+    public void setPrecomputed(PrecomputedIndicator precomputed) {
+        if (!precomputed.getParams().equals(getIndicatorParams())) {
+            throw new IllegalArgumentException("PrecomputedIndicator's params don't match the view's");
         }
+
+        dataFormat = precomputed.getFormat().getPattern();
+        mCompiledFormat = precomputed.getFormat();
+        mTimeMetrics = precomputed.getTimeMetrics();
+        mSuffixMetrics = precomputed.getSuffixMetrics();
+        mPrecomputed = precomputed;
+
+        fillNodeRect();
+        updateTimer();
+
+        requestLayout();
         invalidate();
     }
 
+    /**
+     * 指针文字度量, 样式变化后重新获取
+     */
+    private TextMetricsCache.Metrics getTimeMetrics() {
+        if (mTimeMetrics == null) {
+            mTimeMetrics = TextMetricsCache.get(mTimeTextPaint);
+        }
+        return mTimeMetrics;
+    }
+
+    /**
+     * 后缀文字度量, 样式变化后重新获取
+     */
+    private TextMetricsCache.Metrics getSuffixMetrics() {
+        if (mSuffixMetrics == null) {
+            mSuffixMetrics = TextMetricsCache.get(mSuffixTextPaint);
+        }
+        return mSuffixMetrics;
+    }
+
+    /**
+     * 指针数字图集, 样式变化后重新获取
+     */
+    private GlyphAtlas getTimeAtlas() {
+        TextMetricsCache.Metrics metrics = getTimeMetrics();
+        if (mTimeAtlas == null || mTimeAtlas.getMetrics() != metrics) {
+            mTimeAtlas = GlyphAtlas.obtain(metrics, "");
+        }
+        return mTimeAtlas;
+    }
+
+    /**
+     * 后缀图集, 包含当前格式中所有后缀的字符, 样式或格式变化后重新获取
+     */
+    private GlyphAtlas getSuffixAtlas() {
+        TextMetricsCache.Metrics metrics = getSuffixMetrics();
+        if (mSuffixAtlas == null || mSuffixAtlas.getMetrics() != metrics) {
+            StringBuilder chars = new StringBuilder();
+            for (int i = 0, size = mCompiledFormat.size(); i < size; i++) {
+                FormatToken node = mCompiledFormat.get(i);
+                if (!node.isPointer && node.format != null) chars.append(node.format);
+            }
+            mSuffixAtlas = GlyphAtlas.obtain(metrics, chars);
+        }
+        return mSuffixAtlas;
+    }
+
+    /**
+     * 填充节点绘制工具写入数据, 只拆分格式中出现的字段并写入预分配的缓冲, 不产生新对象
+     * <p>
+     * 只有指针内容变化时才重绘, 没有变化时跳过整次重绘.
+     * 硬件加速会忽略刷新区域, 因此变化时重绘整个视图.
+     * 绑定, 重置, 修改格式和样式时内容直接跳变, 不做过渡.
+     */
+    private void setTimeDataToNodeRect(long time) {
+        setTimeDataToNodeRect(time, false);
+    }
+
+    /**
+     * @param animate 是否为计时推进引起的变化, 只有这时才开始数字过渡
+     */
+    private void setTimeDataToNodeRect(long time, boolean animate) {
+        if (nodeRectList == null) return;
+
+        //未绘制过的视图没有可以过渡的内容
+        boolean transition = animate && digitTransition != TRANSITION_NONE && isLaidOut();
+        long transitionStart = transition ? AnimationUtils.currentAnimationTimeMillis() : -1;
+
+        boolean changed = mLayout.update(mTimeDecomposer, mTickScheduler.getFieldMask(), time,
+                getTimeMetrics(), transitionStart);
+        if (mLayout.needsLayout() && !mDeferInvalidate) {
+            requestLayout();
+        }
+
+        TimeIndicatorMetrics metrics = getActiveMetrics();
+        if (!changed) {
+            mSkippedInvalidateCount++;
+            if (metrics != null) metrics.onInvalidate(this, true);
+        } else {
+            mInvalidateCount++;
+            if (!mDeferInvalidate) invalidate();
+            if (metrics != null) metrics.onInvalidate(this, false);
+        }
+    }
+
+    /**
+     * 没有内容变化而跳过的刷新次数
+     */
+    public long getSkippedInvalidateCount() {
+        return mSkippedInvalidateCount;
+    }
+
+    /**
+     * 有指针变化而重绘的次数
+     */
+    public long getInvalidateCount() {
+        return mInvalidateCount;
+    }
+
+    /**
+     * 清空刷新计数
+     */
+    public void resetInvalidateCount() {
+        mSkippedInvalidateCount = 0;
+        mInvalidateCount = 0;
+    }
+
+    /**
+     * 设置所有视图共用的运行数据回调, 只能在主线程调用
+     *
+     * @param metrics 为 null 时关闭
+     */
+    public static void setGlobalMetrics(@Nullable TimeIndicatorMetrics metrics) {
+        sGlobalMetrics = metrics;
+    }
+
+    @Nullable
+    public static TimeIndicatorMetrics getGlobalMetrics() {
+        return sGlobalMetrics;
+    }
+
+    /**
+     * 设置当前视图的运行数据回调, 设置后不再回调全局回调
+     *
+     * @param metrics 为 null 时使用全局回调
+     */
+    public void setMetrics(@Nullable TimeIndicatorMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    @Nullable
+    public TimeIndicatorMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    private TimeIndicatorMetrics getActiveMetrics() {
+        return mMetrics != null ? mMetrics : sGlobalMetrics;
+    }
+
+    /**
+     * 保存的视图状态
+     */
+    static class SavedState extends BaseSavedState {
+        String dataFormat;
+        int timeMode;
+        String timeZone;
+        boolean countdown;
+        boolean running;
+
+        /**
+         * {@link #setStartTime(long)} 设置的起始时间
+         */
+        long initialTime;
+
+        /**
+         * 计时锚点的起始显示时间和锚点
+         */
+        long startTime;
+        long anchorTime;
+
+        /**
+         * 保存时时间源的读数和墙上时间, 用于判断时间源是否已重置
+         */
+        long sourceTime;
+        long wallTime;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            dataFormat = in.readString();
+            timeMode = in.readInt();
+            timeZone = in.readString();
+            countdown = in.readInt() != 0;
+            running = in.readInt() != 0;
+            initialTime = in.readLong();
+            startTime = in.readLong();
+            anchorTime = in.readLong();
+            sourceTime = in.readLong();
+            wallTime = in.readLong();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeString(dataFormat);
+            out.writeInt(timeMode);
+            out.writeString(timeZone);
+            out.writeInt(countdown ? 1 : 0);
+            out.writeInt(running ? 1 : 0);
+            out.writeLong(initialTime);
+            out.writeLong(startTime);
+            out.writeLong(anchorTime);
+            out.writeLong(sourceTime);
+            out.writeLong(wallTime);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
 }
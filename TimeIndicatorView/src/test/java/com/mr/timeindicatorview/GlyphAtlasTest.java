@@ -0,0 +1,24 @@
+package com.mr.timeindicatorview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 图集字符集合的合并, 不涉及位图
+ */
+public class GlyphAtlasTest {
+
+    @Test
+    public void mergeChars_sortsAndSkipsDigits() {
+        char[] merged = GlyphAtlas.mergeChars(new char[0], "天:时:分-0");
+        assertArrayEquals(new char[]{':', '分', '天', '时'}, merged);
+    }
+
+    @Test
+    public void mergeChars_returnsSameArrayWhenCovered() {
+        char[] current = GlyphAtlas.mergeChars(new char[0], "年月日");
+        assertSame(current, GlyphAtlas.mergeChars(current, "日月12"));
+        assertNotSame(current, GlyphAtlas.mergeChars(current, "时"));
+    }
+}
@@ -0,0 +1,111 @@
+package com.mr.timeindicatorview;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 组合视图中单个指示器的数据测试
+ */
+public class IndicatorModelTest {
+
+    private static class FakeTimeSource implements TimeSource {
+        long now;
+
+        @Override
+        public long now() {
+            return now;
+        }
+    }
+
+    private static String text(IndicatorModel model) {
+        StringBuilder builder = new StringBuilder();
+        for (NodeRect rect : model.layout.getNodes()) {
+            builder.append(rect.isPointer ? new String(rect.chars, 0, rect.length) : rect.format);
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void countdownTicksUntilZero() {
+        FakeTimeSource source = new FakeTimeSource();
+        IndicatorModel model = new IndicatorModel(CompiledFormat.compile("mm:ss"), source);
+
+        model.bind(65_000, true);
+        assertEquals("01:05", text(model));
+
+        long delay = model.onTick(source.now);
+        assertEquals(1, delay);
+        source.now += 500;
+        assertEquals(501, model.onTick(source.now));
+        assertEquals("01:04", text(model));
+
+        source.now = 70_000;
+        assertEquals(-1, model.onTick(source.now));
+        assertEquals("00:00", text(model));
+        assertFalse(model.isRunning());
+    }
+
+    @Test
+    public void setFormat_reusesNodes() {
+        FakeTimeSource source = new FakeTimeSource();
+        IndicatorModel model = new IndicatorModel(CompiledFormat.compile("HH:mm:ss"), source);
+        model.setStartTime(3_723_000, false);
+        NodeRect first = model.layout.getNodes().get(0);
+
+        model.setFormat(CompiledFormat.compile("mm分"));
+        assertEquals("02分", text(model));
+        assertSame(first, model.layout.getNodes().get(0));
+
+        model.setFormat(CompiledFormat.compile("HH:mm:ss"));
+        assertEquals("01:02:03", text(model));
+        assertSame(first, model.layout.getNodes().get(0));
+    }
+
+    @Test
+    public void tickAll_returnsNearestChange() {
+        FakeTimeSource source = new FakeTimeSource();
+        IndicatorModel seconds = new IndicatorModel(CompiledFormat.compile("mm:ss"), source);
+        IndicatorModel minutes = new IndicatorModel(CompiledFormat.compile("HH:mm"), source);
+        IndicatorModel stopped = new IndicatorModel(CompiledFormat.compile("mm:ss"), source);
+        List<IndicatorModel> models = Arrays.asList(minutes, seconds, stopped);
+
+        seconds.bind(65_300, true);
+        minutes.bind(3_630_000, true);
+        stopped.setStartTime(10_000, true);
+        assertEquals(1000, IndicatorModel.minGranularity(models));
+        assertFalse(IndicatorModel.isFrameSynced(models));
+
+        //秒指示器 300ms 后变化, 分指示器要等一分钟
+        assertEquals(301, IndicatorModel.tickAll(models, source.now));
+
+        //秒指示器到点后只剩分指示器
+        source.now = 65_300;
+        assertEquals(24_701, IndicatorModel.tickAll(models, source.now));
+        assertFalse(seconds.isRunning());
+        assertEquals(60_000, IndicatorModel.minGranularity(models));
+    }
+
+    @Test
+    public void tickAll_followsFramesWhileMillisecondsRun() {
+        FakeTimeSource source = new FakeTimeSource();
+        IndicatorModel seconds = new IndicatorModel(CompiledFormat.compile("mm:ss"), source);
+        IndicatorModel millis = new IndicatorModel(CompiledFormat.compile("ss.SSS"), source);
+        List<IndicatorModel> models = Arrays.asList(seconds, millis);
+
+        seconds.bind(65_000, true);
+        millis.bind(1_500, true);
+        assertTrue(IndicatorModel.isFrameSynced(models));
+        assertEquals(millis.getGranularity(), IndicatorModel.minGranularity(models));
+        assertEquals(0, IndicatorModel.tickAll(models, source.now));
+
+        //毫秒指示器结束后回到按秒刷新
+        source.now = 1_500;
+        assertEquals(501, IndicatorModel.tickAll(models, source.now));
+        assertFalse(IndicatorModel.isFrameSynced(models));
+        assertEquals(1000, IndicatorModel.minGranularity(models));
+    }
+}
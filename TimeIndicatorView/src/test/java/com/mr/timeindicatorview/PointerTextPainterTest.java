@@ -0,0 +1,19 @@
+package com.mr.timeindicatorview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 数字切换动画的进度曲线
+ */
+public class PointerTextPainterTest {
+
+    @Test
+    public void transitionProgress_easesOutAndClamps() {
+        assertEquals(0f, PointerTextPainter.progress(0, 300), 0f);
+        assertEquals(0.75f, PointerTextPainter.progress(150, 300), 1e-6f);
+        assertEquals(1f, PointerTextPainter.progress(300, 300), 0f);
+        assertEquals(1f, PointerTextPainter.progress(10, 0), 0f);
+    }
+}
@@ -0,0 +1,122 @@
+package com.mr.timeindicatorview;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 用假的样本序列模拟网络抖动和不对称延迟
+ */
+public class ServerTimeOffsetTest {
+
+    private static final long TRUE_OFFSET = 1_700_000_000_000L;
+
+    private static class FakeTimeSource implements TimeSource {
+        long now;
+
+        @Override
+        public long now() {
+            return now;
+        }
+    }
+
+    /**
+     * 模拟一次请求: 去程和回程各自随机延迟, 服务器时间取请求到达时刻
+     */
+    private static void sample(ServerTimeOffset offset, FakeTimeSource local, Random random) {
+        long up = 10 + random.nextInt(300);
+        long down = 10 + random.nextInt(300);
+        local.now += up;
+        long serverTime = local.now + TRUE_OFFSET;
+        local.now += down;
+        offset.addSample(serverTime, up + down, local.now);
+    }
+
+    @Test
+    public void converges_withJitteredSamples() {
+        FakeTimeSource local = new FakeTimeSource();
+        local.now = 50_000;
+        ServerTimeOffset offset = new ServerTimeOffset(local);
+        assertFalse(offset.isSynced());
+
+        Random random = new Random(21);
+        for (int i = 0; i < 40; i++) {
+            sample(offset, local, random);
+            local.now += 5_000;
+        }
+
+        assertTrue(offset.isSynced());
+        long error = Math.abs(offset.getOffset() - TRUE_OFFSET);
+        assertTrue("error " + error, error <= 50);
+        assertTrue(error <= offset.getUncertainty());
+    }
+
+    /**
+     * 往返耗时 20 毫秒, 服务器时间准确落在往返中点的样本
+     */
+    private static void exactSample(ServerTimeOffset offset, FakeTimeSource local, long serverOffset) {
+        offset.addSample(serverOffset + local.now + 10, 20, local.now + 20);
+    }
+
+    /**
+     * 先提交几个往返耗时相同的样本, 窗口未满, 旧样本不会马上被挤出
+     */
+    private static ServerTimeOffset synced(FakeTimeSource local) {
+        ServerTimeOffset offset = new ServerTimeOffset(local);
+        for (int i = 0; i < 5; i++) {
+            exactSample(offset, local, TRUE_OFFSET);
+            local.now += 1_000;
+        }
+        assertEquals(TRUE_OFFSET, offset.getOffset());
+        return offset;
+    }
+
+    @Test
+    public void smallServerChange_convergesExactly() {
+        FakeTimeSource local = new FakeTimeSource();
+        ServerTimeOffset offset = synced(local);
+
+        //服务器时间前移 400 毫秒, 往返耗时不变, 新样本立即成为最佳估计
+        long shifted = TRUE_OFFSET + 400;
+        exactSample(offset, local, shifted);
+        assertEquals(TRUE_OFFSET + 100, offset.getOffset());
+
+        int samples = 1;
+        while (offset.getOffset() != shifted && samples < 100) {
+            local.now += 1_000;
+            exactSample(offset, local, shifted);
+            samples++;
+        }
+        assertEquals(shifted, offset.getOffset());
+        assertTrue("samples " + samples, samples <= 25);
+    }
+
+    @Test
+    public void serverMovesBack_nowNeverGoesBackwardWhileConverging() {
+        FakeTimeSource local = new FakeTimeSource();
+        ServerTimeOffset offset = synced(local);
+
+        long shifted = TRUE_OFFSET - 400;
+        long last = offset.now();
+        for (int i = 0; i < 25; i++) {
+            exactSample(offset, local, shifted);
+            local.now += 10;
+            long now = offset.now();
+            assertTrue(now >= last);
+            last = now;
+        }
+        assertEquals(shifted, offset.getOffset());
+    }
+
+    @Test
+    public void largeServerChange_stepsOnFirstSample() {
+        FakeTimeSource local = new FakeTimeSource();
+        ServerTimeOffset offset = synced(local);
+
+        long shifted = TRUE_OFFSET + 5_000;
+        exactSample(offset, local, shifted);
+        assertEquals(shifted, offset.getOffset());
+    }
+}
@@ -0,0 +1,104 @@
+package com.mr.timeindicatorview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 样式对象的复制, 共用和比较
+ */
+public class TimeIndicatorSpecTest {
+
+    @Test
+    public void buildUpon_copiesEveryField() {
+        TimeIndicatorSpec spec = new TimeIndicatorSpec.Builder()
+                .setFormat("HH:mm:ss")
+                .setCountdown(true)
+                .setPointerSize(40, 36)
+                .setTimeText(0xFF000000, 24, 1)
+                .setSuffixText(0xFF333333, 18, 0)
+                .setSuffixMargin(2, 3)
+                .setFixedDigitWidth(true)
+                .build();
+        TimeIndicatorSpec copy = spec.buildUpon().build();
+
+        assertNotSame(spec, copy);
+        assertSame(spec.getFormat(), copy.getFormat());
+        assertTrue(copy.isCountdown());
+        assertEquals(40, copy.pointerWidth);
+        assertEquals(36, copy.pointerHeight);
+        assertEquals(24, copy.pointerTextSize, 0);
+        assertEquals(1, copy.pointerTextStyle);
+        assertEquals(0xFF333333, copy.suffixTextColor);
+        assertEquals(3, copy.suffixMarginRight);
+        assertTrue(copy.fixedDigitWidth);
+    }
+
+    @Test
+    public void defaults_matchXmlDefaults() {
+        TimeIndicatorSpec spec = new TimeIndicatorSpec.Builder().build();
+
+        assertEquals("yyyy-MM-dd HH:mm:ss", spec.getFormat().getPattern());
+        assertFalse(spec.isCountdown());
+        assertEquals(28, spec.pointerWidth);
+        assertEquals(12, spec.suffixTextSize, 0);
+    }
+
+    @Test
+    public void diff_sameStyleHasNoChanges() {
+        TimeIndicatorSpec.Builder current = new TimeIndicatorSpec.Builder().setFormat("mm:ss");
+        TimeIndicatorSpec spec = new TimeIndicatorSpec.Builder().setFormat("mm:ss").build();
+
+        //不同对象的相同格式也算相同
+        assertEquals(0, spec.diff(current));
+    }
+
+    @Test
+    public void diff_colorChangeOnlyRedraws() {
+        TimeIndicatorSpec.Builder current = new TimeIndicatorSpec.Builder();
+        TimeIndicatorSpec spec = new TimeIndicatorSpec.Builder()
+                .setPointerBackgroundColor(0xFF123456)
+                .setPointerRadius(9)
+                .build();
+
+        assertEquals(TimeIndicatorSpec.CHANGED_DRAW, spec.diff(current));
+    }
+
+    @Test
+    public void diff_textSizeChangesMetricsAndLayout() {
+        TimeIndicatorSpec.Builder current = new TimeIndicatorSpec.Builder();
+        TimeIndicatorSpec spec = current.build().buildUpon()
+                .setSuffixText(TimeIndicatorView.DEF_TEXT_COLOR, 20, TimeIndicatorView.DEF_TEXT_STYLE)
+                .build();
+
+        assertEquals(TimeIndicatorSpec.CHANGED_SUFFIX_METRICS | TimeIndicatorSpec.CHANGED_LAYOUT,
+                spec.diff(current));
+    }
+
+    @Test
+    public void diff_boldChangesMetricsAndDraw() {
+        TimeIndicatorSpec.Builder current = new TimeIndicatorSpec.Builder();
+        TimeIndicatorSpec spec = current.build().buildUpon()
+                .setTimeText(TimeIndicatorView.DEF_TEXT_COLOR, TimeIndicatorView.DEF_TEXT_SIZE, 1)
+                .build();
+
+        assertEquals(TimeIndicatorSpec.CHANGED_TIME_METRICS | TimeIndicatorSpec.CHANGED_LAYOUT
+                | TimeIndicatorSpec.CHANGED_DRAW, spec.diff(current));
+    }
+
+    @Test
+    public void diff_formatAndDirection() {
+        TimeIndicatorSpec.Builder current = new TimeIndicatorSpec.Builder();
+        TimeIndicatorSpec spec = new TimeIndicatorSpec.Builder()
+                .setFormat("HH:mm")
+                .setCountdown(true)
+                .build();
+
+        assertEquals(TimeIndicatorSpec.CHANGED_FORMAT | TimeIndicatorSpec.CHANGED_LAYOUT
+                | TimeIndicatorSpec.CHANGED_COUNTDOWN, spec.diff(current));
+
+        //margin 只影响布局
+        TimeIndicatorSpec margin = new TimeIndicatorSpec.Builder().setSuffixMargin(4, 0).build();
+        assertEquals(TimeIndicatorSpec.CHANGED_LAYOUT, margin.diff(current));
+    }
+}
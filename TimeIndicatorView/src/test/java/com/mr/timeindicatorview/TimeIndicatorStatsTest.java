@@ -0,0 +1,56 @@
+package com.mr.timeindicatorview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 运行数据统计测试
+ */
+public class TimeIndicatorStatsTest {
+
+    @Test
+    public void bucketOf_powersOfTwo() {
+        assertEquals(0, TimeIndicatorStats.bucketOf(-3));
+        assertEquals(0, TimeIndicatorStats.bucketOf(0));
+        assertEquals(1, TimeIndicatorStats.bucketOf(1));
+        assertEquals(2, TimeIndicatorStats.bucketOf(2));
+        assertEquals(2, TimeIndicatorStats.bucketOf(3));
+        assertEquals(3, TimeIndicatorStats.bucketOf(4));
+        assertEquals(TimeIndicatorStats.BUCKET_COUNT - 1, TimeIndicatorStats.bucketOf(Long.MAX_VALUE));
+
+        for (long lateness = 1; lateness < 5000; lateness++) {
+            int bucket = TimeIndicatorStats.bucketOf(lateness);
+            assertTrue(lateness < TimeIndicatorStats.bucketUpperBound(bucket));
+            assertTrue(lateness >= TimeIndicatorStats.bucketUpperBound(bucket - 1));
+        }
+    }
+
+    @Test
+    public void accumulatesAndResets() {
+        TimeIndicatorStats stats = new TimeIndicatorStats();
+        stats.onTick(null, 0, 0);
+        stats.onTick(null, 5, 0);
+        stats.onTick(null, 2500, 2);
+        stats.onInvalidate(null, true);
+        stats.onInvalidate(null, false);
+        stats.onInvalidate(null, false);
+        stats.onDraw(null, 300);
+        stats.onDraw(null, 100);
+
+        assertEquals(3, stats.getTickCount());
+        assertEquals(2, stats.getDroppedCount());
+        assertEquals(2500, stats.getMaxLateness());
+        assertEquals(1, stats.getLatenessCount(0));
+        assertEquals(1, stats.getLatenessCount(TimeIndicatorStats.bucketOf(5)));
+        assertEquals(1, stats.getSkippedCount());
+        assertEquals(2, stats.getInvalidateCount());
+        assertEquals(400, stats.getDrawNanos());
+        assertEquals(300, stats.getMaxDrawNanos());
+
+        stats.reset();
+        assertEquals(0, stats.getTickCount());
+        assertEquals(0, stats.getLatenessCount(0));
+        assertEquals(0, stats.getDrawCount());
+    }
+}
@@ -0,0 +1,83 @@
+package com.mr.timeindicatorview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 列表滚动时反复绑定的开销, 对应 TimeIndicatorView#bind
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindBenchmark {
+
+    private static final long NOW = 1_000_000_000L;
+
+    private final CompiledFormat shortFormat = CompiledFormat.compile("HH:mm:ss");
+
+    private final CompiledFormat longFormat = CompiledFormat.compile("dd天HH:mm:ss");
+
+    private IndicatorFixture fixture;
+
+    private TimeAnchor anchor;
+
+    private long target;
+
+    private boolean flip;
+
+    @Setup
+    public void setup() {
+        fixture = new IndicatorFixture("HH:mm:ss", 36);
+        fixture.measure();
+        anchor = new TimeAnchor(new TimeSource() {
+            @Override
+            public long now() {
+                return NOW;
+            }
+        });
+    }
+
+    /**
+     * 格式不变, 每次绑定不同的目标时间
+     */
+    @Benchmark
+    public long bindSameFormat() {
+        target += 7_919;
+        fixture.setFormat(shortFormat);
+        return bind();
+    }
+
+    /**
+     * 相邻的两行格式不同, 节点被复用
+     */
+    @Benchmark
+    public long bindAlternatingFormat() {
+        target += 7_919;
+        flip = !flip;
+        fixture.setFormat(flip ? longFormat : shortFormat);
+        fixture.measure();
+        return bind();
+    }
+
+    private long bind() {
+        anchor.startAt(NOW + target, true);
+        long time = anchor.timeAt(NOW);
+        fixture.tick(time);
+        return fixture.scheduler.nextDelay(time, true);
+    }
+}
@@ -0,0 +1,103 @@
+package com.mr.timeindicatorview;
+
+import android.graphics.Canvas;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 每一帧绘制指针文字的开销, 静态绘制与切换动画对比
+ * <p>
+ * 画布是不做真实绘制的替身, 结果只反映库自身每帧的计算和分配, 不包括 Skia 的栅格化
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrawBenchmark {
+
+    private static final long DURATION = 300;
+
+    @Param({"false", "true"})
+    public boolean fixedDigitWidth;
+
+    private IndicatorFixture fixture;
+
+    private TextMetricsCache.Metrics metrics;
+
+    private final Canvas canvas = new Canvas();
+
+    private long frame;
+
+    @Setup
+    public void setup() {
+        fixture = new IndicatorFixture("HH:mm:ss", 36);
+        fixture.setFixedDigitWidth(fixedDigitWidth);
+        fixture.measure();
+        fixture.tick(3_599_000L);
+
+        //与视图中数值变化时的处理一致: 先保存旧文字再写入新值
+        for (NodeRect rect : fixture.nodes) {
+            if (!rect.isPointer) continue;
+            rect.savePrevious(0);
+        }
+        fixture.tick(3_600_000L);
+        metrics = TextMetricsCache.get(fixture.timePaint);
+    }
+
+    /**
+     * 没有动画时的一帧
+     */
+    @Benchmark
+    public float drawStatic() {
+        for (int i = 0, size = fixture.nodes.size(); i < size; i++) {
+            NodeRect rect = fixture.nodes.get(i);
+            if (!rect.isPointer) continue;
+            PointerTextPainter.drawStatic(canvas, rect, fixture.timePaint, metrics, fixedDigitWidth);
+        }
+        return canvas.checksum;
+    }
+
+    /**
+     * 所有格子都在滚动的一帧
+     */
+    @Benchmark
+    public float drawRoll() {
+        return drawTransition(false);
+    }
+
+    /**
+     * 所有格子都在翻转的一帧
+     */
+    @Benchmark
+    public float drawFlip() {
+        return drawTransition(true);
+    }
+
+    private float drawTransition(boolean flip) {
+        frame = (frame + 16) % DURATION;
+        float progress = PointerTextPainter.progress(frame, DURATION);
+        for (int i = 0, size = fixture.nodes.size(); i < size; i++) {
+            NodeRect rect = fixture.nodes.get(i);
+            if (!rect.isPointer) continue;
+            PointerTextPainter.drawTransition(canvas, rect, fixture.timePaint, metrics,
+                    fixedDigitWidth, flip, progress);
+        }
+        return canvas.checksum;
+    }
+}
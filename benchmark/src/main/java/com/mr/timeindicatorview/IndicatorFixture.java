@@ -0,0 +1,75 @@
+package com.mr.timeindicatorview;
+
+import android.graphics.Paint;
+
+import java.util.List;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 脱离 View 的指示器, 与 TimeIndicatorView 一样由 {@link IndicatorLayout}
+ * 完成节点复用, 测量和刷新, 文字度量来自替身画笔
+ */
+final class IndicatorFixture {
+
+    /**
+     * 与 TimeIndicatorView.DEF_MILLIS_IN_FUTURE 相同
+     */
+    static final long FRAME_INTERVAL = 20;
+
+    final IndicatorLayout layout = new IndicatorLayout();
+
+    final List<NodeRect> nodes = layout.getNodes();
+
+    final TickScheduler scheduler = new TickScheduler(FRAME_INTERVAL);
+
+    final Paint timePaint = new Paint();
+
+    final Paint suffixPaint = new Paint();
+
+    TimeDecomposer decomposer = new DurationDecomposer();
+
+    IndicatorFixture(String format, float textSize) {
+        timePaint.setTextSize(textSize);
+        suffixPaint.setTextSize(textSize * 0.8f);
+
+        layout.setPointerSize(60, 60);
+        layout.setSuffixMargin(4, 4);
+        scheduler.setDecomposer(decomposer);
+        setFormat(CompiledFormat.compile(format));
+    }
+
+    /**
+     * 对应 fillNodeRect, 格式相同时什么都不做, 否则复用已有节点
+     */
+    void setFormat(CompiledFormat format) {
+        if (format == layout.getFormat()) return;
+
+        layout.setFormat(format);
+        scheduler.setNodes(nodes);
+    }
+
+    void setDecomposer(TimeDecomposer decomposer) {
+        this.decomposer = decomposer;
+        scheduler.setDecomposer(decomposer);
+    }
+
+    void setFixedDigitWidth(boolean fixedDigitWidth) {
+        layout.setFixedDigitWidth(fixedDigitWidth);
+    }
+
+    /**
+     * 对应 onMeasure, 返回内容宽度
+     */
+    int measure() {
+        return layout.measure(TextMetricsCache.get(timePaint), TextMetricsCache.get(suffixPaint), 0, 0);
+    }
+
+    /**
+     * 对应 setTimeDataToNodeRect, 返回是否有指针变化
+     */
+    boolean tick(long time) {
+        return layout.update(decomposer, scheduler.getFieldMask(), time,
+                TextMetricsCache.get(timePaint), -1);
+    }
+}
@@ -0,0 +1,49 @@
+package com.mr.timeindicatorview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: onMeasure 的布局计算, 包括按样式查找文字度量
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeasureBenchmark {
+
+    @Param({"HH:mm:ss", "yyyy年MM月dd日 HH时mm分ss秒"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean fixedDigitWidth;
+
+    private IndicatorFixture fixture;
+
+    @Setup
+    public void setup() {
+        fixture = new IndicatorFixture(format, 36);
+        fixture.setFixedDigitWidth(fixedDigitWidth);
+        fixture.tick(1_954_654_564L);
+    }
+
+    @Benchmark
+    public int measure() {
+        return fixture.measure();
+    }
+}
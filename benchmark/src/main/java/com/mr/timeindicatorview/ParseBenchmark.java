@@ -0,0 +1,52 @@
+package com.mr.timeindicatorview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 格式解析的开销, 分别测量不走缓存的解析和带缓存的编译
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"yyyy-MM-dd HH:mm:ss", "'Day' dd HH:mm:ss.SSS", "yyyy年MM月dd日 HH时mm分ss秒"})
+    public String format;
+
+    @Benchmark
+    public CompiledFormat parse() {
+        return CompiledFormat.parse(format);
+    }
+
+    @Benchmark
+    public CompiledFormat compileCached() {
+        return CompiledFormat.compile(format);
+    }
+
+    /**
+     * 视图通过 FormatNodeParser 使用时的开销
+     */
+    @Benchmark
+    public List<FormatNode> parserFacade() {
+        FormatNodeParser parser = new FormatNodeParser(format);
+        parser.parsing();
+        return parser.getFormatNodes();
+    }
+}
@@ -0,0 +1,73 @@
+package com.mr.timeindicatorview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 服务器时间源的开销: 每次刷新读取一次, 每次同步提交一个样本
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerTimeBenchmark {
+
+    private static final long OFFSET = 1_700_000_000_000L;
+
+    private ServerTimeOffset offset;
+
+    private TimeAnchor anchor;
+
+    private long localNow;
+
+    private long seed = 42;
+
+    @Setup
+    public void setup() {
+        offset = new ServerTimeOffset(new TimeSource() {
+            @Override
+            public long now() {
+                return localNow;
+            }
+        });
+        offset.addSample(OFFSET, 100, 0);
+        anchor = new TimeAnchor(offset);
+        anchor.startAt(OFFSET + 3_600_000, true);
+    }
+
+    /**
+     * 假的样本序列, 往返耗时在 20-620 毫秒间抖动
+     */
+    @Benchmark
+    public long addSample() {
+        seed = seed * 6364136223846793005L + 1442695040888963407L;
+        long up = 10 + ((seed >>> 33) % 300);
+        long down = 10 + ((seed >>> 13) % 300);
+        localNow += up + down;
+        offset.addSample(localNow - down + OFFSET, up + down, localNow);
+        return offset.getOffset();
+    }
+
+    /**
+     * 视图刷新时读取显示时间
+     */
+    @Benchmark
+    public long currentTime() {
+        localNow += 16;
+        return anchor.currentTime();
+    }
+}
@@ -0,0 +1,87 @@
+package com.mr.timeindicatorview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 每次刷新写入指针的开销, 每次操作时间前进一帧
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickBenchmark {
+
+    @Param({"HH:mm:ss", "yyyy-MM-dd HH:mm:ss", "HH:mm:ss.SSS"})
+    public String format;
+
+    @Param({"duration", "calendar"})
+    public String mode;
+
+    @Param({"false", "true"})
+    public boolean fixedDigitWidth;
+
+    private IndicatorFixture fixture;
+
+    private long time;
+
+    @Setup
+    public void setup() {
+        fixture = new IndicatorFixture(format, 36);
+        fixture.setFixedDigitWidth(fixedDigitWidth);
+        if ("calendar".equals(mode)) {
+            fixture.setDecomposer(new CalendarDecomposer(TimeZone.getTimeZone("Asia/Shanghai")));
+        }
+        fixture.measure();
+        time = 1_660_000_000_000L;
+    }
+
+    /**
+     * 一次完整的刷新: 拆分时间, 写入指针, 合并重绘区域
+     */
+    @Benchmark
+    public boolean tick() {
+        time += IndicatorFixture.FRAME_INTERVAL;
+        return fixture.tick(time);
+    }
+
+    /**
+     * 刷新后计算下一次唤醒时间
+     */
+    @Benchmark
+    public long tickAndSchedule() {
+        time += IndicatorFixture.FRAME_INTERVAL;
+        fixture.tick(time);
+        return fixture.scheduler.nextDelay(time, false);
+    }
+
+    /**
+     * 基线: 每个指针各自做取余和除法, 不经过拆分器
+     */
+    @Benchmark
+    public int legacyArithmetic() {
+        time += IndicatorFixture.FRAME_INTERVAL;
+        int changed = 0;
+        for (int i = 0, size = fixture.nodes.size(); i < size; i++) {
+            NodeRect rect = fixture.nodes.get(i);
+            if (rect.isPointer && rect.setTime(time)) changed++;
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,84 @@
+package com.mr.timeindicatorview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 同一时刻显示多个时区的开销, 每次操作时间前进一秒, 依次拆分所有时区
+ * <p>
+ * 曾经让所有时区共用一个 UTC 拆分缓存, 与各自拆分相比没有可测出的差别, 已经去掉.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldClockBenchmark {
+
+    private static final String[] ZONES = {"Asia/Shanghai", "Europe/London", "America/New_York",
+            "Asia/Kolkata", "Australia/Sydney", "America/Los_Angeles", "Asia/Tokyo", "Europe/Berlin"};
+
+    private static final int FIELDS = (1 << TimeField.YEAR) | (1 << TimeField.MONTH) | (1 << TimeField.DAY)
+            | (1 << TimeField.HOURS) | (1 << TimeField.MINUTE) | (1 << TimeField.SECONDS);
+
+    private final int[] fields = new int[TimeField.COUNT];
+
+    private CalendarDecomposer[] decomposers;
+
+    private TimeZone[] zones;
+
+    private long time;
+
+    @Setup
+    public void setup() {
+        decomposers = new CalendarDecomposer[ZONES.length];
+        zones = new TimeZone[ZONES.length];
+        for (int i = 0; i < ZONES.length; i++) {
+            zones[i] = TimeZone.getTimeZone(ZONES[i]);
+            decomposers[i] = new CalendarDecomposer(zones[i]);
+        }
+        time = 1_660_000_000_000L;
+    }
+
+    /**
+     * 每个时区一个拆分器, 偏移取自预先探测的切换表
+     */
+    @Benchmark
+    public int calendarDecomposer() {
+        time += TimeField.TIME_OF_SECONDS;
+        int sum = 0;
+        for (CalendarDecomposer decomposer : decomposers) {
+            decomposer.decompose(time, FIELDS, fields);
+            sum += fields[TimeField.HOURS];
+        }
+        return sum;
+    }
+
+    /**
+     * 基线: 每次都向时区查询偏移
+     */
+    @Benchmark
+    public int zoneLookup() {
+        time += TimeField.TIME_OF_SECONDS;
+        int sum = 0;
+        for (TimeZone zone : zones) {
+            long local = time + zone.getOffset(time);
+            sum += (int) (local / TimeField.TIME_OF_HOURS % 24);
+        }
+        return sum;
+    }
+}
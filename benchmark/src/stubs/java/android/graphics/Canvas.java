@@ -0,0 +1,40 @@
+package android.graphics;
+
+/**
+ * 基准测试用的替身, 不做真实绘制, 只记录调用次数和坐标, 避免绘制代码被优化掉
+ */
+public class Canvas {
+
+    private int saveCount;
+
+    public int drawCount;
+
+    public float checksum;
+
+    public int save() {
+        return ++saveCount;
+    }
+
+    public void restore() {
+        saveCount--;
+    }
+
+    public boolean clipRect(int left, int top, int right, int bottom) {
+        checksum += left + top + right + bottom;
+        return right > left && bottom > top;
+    }
+
+    public void scale(float sx, float sy, float px, float py) {
+        checksum += sx * sy + px + py;
+    }
+
+    public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+        drawCount++;
+        checksum += text[index] + count + x + y;
+    }
+
+    public void drawText(String text, float x, float y, Paint paint) {
+        drawCount++;
+        checksum += text.length() + x + y;
+    }
+}
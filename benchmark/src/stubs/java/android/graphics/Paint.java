@@ -0,0 +1,78 @@
+package android.graphics;
+
+/**
+ * 基准测试用的替身, 按字号给出固定的字宽, 只用于衡量库自身的计算, 不代表真实的文字排版开销
+ */
+public class Paint {
+
+    private float textSize = 12;
+    private Typeface typeface;
+    private boolean fakeBoldText;
+
+    public Paint() {
+    }
+
+    public Paint(Paint paint) {
+        textSize = paint.textSize;
+        typeface = paint.typeface;
+        fakeBoldText = paint.fakeBoldText;
+    }
+
+    public float getTextSize() {
+        return textSize;
+    }
+
+    public void setTextSize(float textSize) {
+        this.textSize = textSize;
+    }
+
+    public Typeface getTypeface() {
+        return typeface;
+    }
+
+    public Typeface setTypeface(Typeface typeface) {
+        this.typeface = typeface;
+        return typeface;
+    }
+
+    public boolean isFakeBoldText() {
+        return fakeBoldText;
+    }
+
+    public void setFakeBoldText(boolean fakeBoldText) {
+        this.fakeBoldText = fakeBoldText;
+    }
+
+    public float measureText(char[] text, int index, int count) {
+        float width = 0;
+        for (int i = index; i < index + count; i++) {
+            width += charWidth(text[i]);
+        }
+        return width;
+    }
+
+    public float measureText(String text) {
+        float width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            width += charWidth(text.charAt(i));
+        }
+        return width;
+    }
+
+    public void getTextBounds(String text, int start, int end, Rect bounds) {
+        float width = 0;
+        for (int i = start; i < end; i++) {
+            width += charWidth(text.charAt(i));
+        }
+        bounds.left = 0;
+        bounds.top = (int) -(textSize * 0.7f);
+        bounds.right = (int) width;
+        bounds.bottom = 0;
+    }
+
+    private float charWidth(char c) {
+        //数字 1 略窄, 用来区分等宽和比例排列
+        float scale = c == '1' ? 0.4f : c < 0x80 ? 0.55f : 1f;
+        return textSize * scale * (fakeBoldText ? 1.05f : 1f);
+    }
+}
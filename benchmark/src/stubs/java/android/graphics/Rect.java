@@ -0,0 +1,20 @@
+package android.graphics;
+
+/**
+ * 基准测试用的替身
+ */
+public class Rect {
+
+    public int left;
+    public int top;
+    public int right;
+    public int bottom;
+
+    public final int width() {
+        return right - left;
+    }
+
+    public final int height() {
+        return bottom - top;
+    }
+}
@@ -0,0 +1,9 @@
+package android.graphics;
+
+/**
+ * 基准测试用的替身, 只作为缓存 key 的一部分
+ */
+public class Typeface {
+
+    public static final Typeface DEFAULT = new Typeface();
+}
@@ -0,0 +1,104 @@
+package com.mr.timeindicatorview;
+
+import java.util.TimeZone;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 日历拆分, 把 UTC 毫秒数按时区显示为真实的年月日时分秒
+ * <p>
+ * 时区偏移取自预先探测的切换表({@link ZoneTransitions}), 两次夏令时切换之间不再查询时区.
+ * UTC 天数和年月日由 {@link WallClockCache} 计算, 同一时间只拆分一次, 年月日按天缓存.
+ * 月和日从1开始.
+ */
+public class CalendarDecomposer implements TimeDecomposer {
+
+    private final TimeZone timeZone;
+
+    private final WallClockCache cache;
+
+    private ZoneTransitions transitions;
+
+    /**
+     * 缓存的时区偏移及其有效范围 [offsetFrom, offsetUntil)
+     */
+    private int offset;
+    private long offsetFrom = 1;
+    private long offsetUntil = 0;
+
+    public CalendarDecomposer(TimeZone timeZone) {
+        this.timeZone = timeZone;
+        this.cache = new WallClockCache();
+    }
+
+    public TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    @Override
+    public void decompose(long time, int fieldMask, int[] fields) {
+        WallClockCache cache = this.cache;
+        cache.update(time);
+
+        //偏移不超过一天, 当地时间最多落在前后一天
+        long epochDay = cache.getEpochDay();
+        int ms = cache.getMsOfDay() + offsetAt(time);
+        if (ms < 0) {
+            ms += TimeField.TIME_OF_DAY;
+            epochDay--;
+        } else if (ms >= TimeField.TIME_OF_DAY) {
+            ms -= TimeField.TIME_OF_DAY;
+            epochDay++;
+        }
+
+        if ((fieldMask & ((1 << TimeField.YEAR) | (1 << TimeField.MONTH) | (1 << TimeField.DAY))) != 0) {
+            cache.writeDate(epochDay, fields);
+        }
+
+        fields[TimeField.HOURS] = (int) (ms / TimeField.TIME_OF_HOURS);
+        fields[TimeField.MINUTE] = (int) (ms / TimeField.TIME_OF_MINUTE % 60);
+        fields[TimeField.SECONDS] = (int) (ms / TimeField.TIME_OF_SECONDS % 60);
+        fields[TimeField.MILLISECOND] = (int) (ms % TimeField.TIME_OF_SECONDS);
+    }
+
+    @Override
+    public long delayToNextChange(long time, int fieldMask, boolean countdown) {
+        cache.update(time);
+        long msOfDay = cache.getMsOfDay() + offsetAt(time);
+        msOfDay -= WallClockCache.floorDiv(msOfDay, TimeField.TIME_OF_DAY) * TimeField.TIME_OF_DAY;
+
+        //年月日都在当地零点变化
+        int finest = 31 - Integer.numberOfLeadingZeros(fieldMask);
+        long unit = finest >= TimeField.HOURS ? TimeField.unitOf(finest) : TimeField.TIME_OF_DAY;
+
+        long delay;
+        long untilOffsetChange;
+        if (countdown) {
+            delay = msOfDay % unit + 1;
+            untilOffsetChange = time - offsetFrom + 1;
+        } else {
+            delay = unit - msOfDay % unit;
+            untilOffsetChange = offsetUntil - time;
+        }
+        //时区偏移变化时所有字段都可能变化
+        return Math.min(delay, untilOffsetChange);
+    }
+
+    /**
+     * 获取时区偏移, 只在跨过切换时刻时重新查表
+     */
+    private int offsetAt(long time) {
+        if (time < offsetFrom || time >= offsetUntil) {
+            ZoneTransitions table = transitions;
+            if (table == null || !table.covers(time)) {
+                table = ZoneTransitions.obtain(timeZone, time);
+                transitions = table;
+            }
+            int index = table.indexOf(time);
+            offset = table.offsetOf(index);
+            offsetFrom = table.startOf(index);
+            offsetUntil = table.endOf(index);
+        }
+        return offset;
+    }
+}
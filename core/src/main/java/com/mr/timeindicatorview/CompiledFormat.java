@@ -0,0 +1,145 @@
+package com.mr.timeindicatorview;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 编译后的时间格式, 不可变, 可在多个视图间共享
+ * <p>
+ * 格式从左到右扫描一次: yyyy MM dd HH mm ss SSS 为时间指针, 可以重复出现;
+ * 其余每个字符是一个后缀; 单引号内的文字作为一个整体后缀, 两个单引号表示单引号本身.
+ * 编译结果按格式字符串缓存, 相同格式不会重复解析.
+ */
+public final class CompiledFormat {
+
+    private static final int MAX_CACHE_SIZE = 64;
+
+    /**
+     * 按长度从长到短排列, 保证优先匹配较长的格式符
+     */
+    private static final String[] TOKENS = {TimeField.FORMAT_YEAR, TimeField.FORMAT_MILLISECOND
+            , TimeField.FORMAT_MONTH, TimeField.FORMAT_DAY, TimeField.FORMAT_HOURS
+            , TimeField.FORMAT_MINUTE, TimeField.FORMAT_SECONDS};
+
+    private static final Map<String, CompiledFormat> sCache =
+            new LinkedHashMap<String, CompiledFormat>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompiledFormat> eldest) {
+                    return size() > MAX_CACHE_SIZE;
+                }
+            };
+
+    public static final CompiledFormat EMPTY = new CompiledFormat("", new FormatToken[0]);
+
+    private final String pattern;
+
+    private final FormatToken[] nodes;
+
+    private final List<FormatToken> nodeList;
+
+    private CompiledFormat(String pattern, FormatToken[] nodes) {
+        this.pattern = pattern;
+        this.nodes = nodes;
+        this.nodeList = Collections.unmodifiableList(Arrays.asList(nodes));
+    }
+
+    /**
+     * 获取编译后的格式, 优先从缓存读取
+     */
+    public static CompiledFormat compile(String pattern) {
+        if (pattern == null || pattern.length() == 0) return EMPTY;
+
+        synchronized (sCache) {
+            CompiledFormat format = sCache.get(pattern);
+            if (format == null) {
+                format = parse(pattern);
+                sCache.put(pattern, format);
+            }
+            return format;
+        }
+    }
+
+    /**
+     * 单次扫描解析格式
+     */
+    static CompiledFormat parse(String pattern) {
+        List<FormatToken> nodes = new ArrayList<>();
+        int length = pattern.length();
+        int i = 0;
+        while (i < length) {
+            char c = pattern.charAt(i);
+
+            if (c == '\'') {
+                if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+                    //引号外的 '' 表示单引号
+                    nodes.add(new FormatToken("'", false));
+                    i += 2;
+                    continue;
+                }
+
+                //引号内的文字作为一个后缀, 其中的 '' 表示单引号
+                StringBuilder literal = new StringBuilder();
+                i++;
+                while (i < length) {
+                    char q = pattern.charAt(i++);
+                    if (q != '\'') {
+                        literal.append(q);
+                    } else if (i < length && pattern.charAt(i) == '\'') {
+                        literal.append('\'');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (literal.length() > 0) {
+                    nodes.add(new FormatToken(literal.toString(), false));
+                }
+                continue;
+            }
+
+            String token = matchToken(pattern, i);
+            if (token != null) {
+                nodes.add(new FormatToken(token, true));
+                i += token.length();
+            } else {
+                nodes.add(new FormatToken(String.valueOf(c), false));
+                i++;
+            }
+        }
+        return new CompiledFormat(pattern, nodes.toArray(new FormatToken[0]));
+    }
+
+    private static String matchToken(String pattern, int offset) {
+        for (String token : TOKENS) {
+            if (pattern.startsWith(token, offset)) {
+                return token;
+            }
+        }
+        return null;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public FormatToken get(int index) {
+        return nodes[index];
+    }
+
+    /**
+     * @return 不可修改的节点列表
+     */
+    public List<FormatToken> getTokens() {
+        return nodeList;
+    }
+}
@@ -0,0 +1,436 @@
+package com.mr.timeindicatorview;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 批量倒计时管理, 用分层时间轮管理大量截止时间
+ * <p>
+ * 列表中的视图不再各自持有计时器, 只在绘制时按 id 读取剩余时间. 到期的 id 在
+ * {@link #advance(long)} 中一次性批量回调. 时间轮每层 64 个槽, 每个槽的占用情况记录在一个 long 中,
+ * 推进时直接跳到下一个有内容的槽, 长时间没有推进也不会逐格空转.
+ * <p>
+ * 不依赖 Android, 不是线程安全的, 应在同一线程使用.
+ */
+public final class CountdownRegistry {
+
+    /**
+     * 到期回调
+     */
+    public interface ExpiryListener {
+        /**
+         * @param ids   本次到期的 id, 数组会被复用, 只在回调中有效
+         * @param count 有效个数
+         */
+        void onExpired(long[] ids, int count);
+    }
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = (64 + SLOT_BITS - 1) / SLOT_BITS;
+
+    /**
+     * 条目所在的位置: 已经到期等待回调, 或者已经回调过
+     */
+    private static final int LEVEL_DUE = -1;
+    private static final int LEVEL_EXPIRED = -2;
+
+    private static final class Entry {
+        long id;
+        long deadline;
+        long expireTick;
+        int level;
+        int slot;
+        Entry prev;
+        Entry next;
+    }
+
+    private final TimeSource timeSource;
+
+    /**
+     * 时间轮的最小刻度
+     */
+    private final long tickMillis;
+
+    private final Entry[][] wheel = new Entry[LEVELS][SLOTS];
+
+    /**
+     * 每层各个槽是否有条目, 第 i 位对应第 i 个槽
+     */
+    private final long[] occupied = new long[LEVELS];
+
+    /**
+     * 已经到期, 等待下一次推进时回调的条目
+     */
+    private Entry mDueHead;
+
+    /**
+     * 最后一次处理过的刻度
+     */
+    private long mCurrentTick;
+
+    private final EntryMap mEntries = new EntryMap();
+
+    private long[] mExpiredBuffer = new long[16];
+
+    private ExpiryListener mListener;
+
+    public CountdownRegistry(TimeSource timeSource) {
+        this(timeSource, 10);
+    }
+
+    /**
+     * @param tickMillis 时间轮刻度, 到期回调最多比截止时间晚一个刻度
+     */
+    public CountdownRegistry(TimeSource timeSource, long tickMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be positive");
+        this.timeSource = timeSource;
+        this.tickMillis = tickMillis;
+        mCurrentTick = floorTick(timeSource.now());
+    }
+
+    public TimeSource getTimeSource() {
+        return timeSource;
+    }
+
+    public void setExpiryListener(ExpiryListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * 添加或更新截止时间
+     *
+     * @param deadline 与时间源同一时间基准的截止时刻
+     */
+    public void put(long id, long deadline) {
+        Entry entry = mEntries.get(id);
+        if (entry == null) {
+            entry = new Entry();
+            entry.id = id;
+            mEntries.put(id, entry);
+        } else {
+            unlink(entry);
+        }
+        entry.deadline = deadline;
+        entry.expireTick = ceilTick(deadline);
+        schedule(entry);
+    }
+
+    /**
+     * 移除截止时间, 不会再收到它的到期回调
+     */
+    public boolean remove(long id) {
+        Entry entry = mEntries.remove(id);
+        if (entry == null) return false;
+        unlink(entry);
+        return true;
+    }
+
+    public void clear() {
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[level][slot] = null;
+            }
+            occupied[level] = 0;
+        }
+        mDueHead = null;
+        mEntries.clear();
+    }
+
+    public boolean contains(long id) {
+        return mEntries.get(id) != null;
+    }
+
+    public int size() {
+        return mEntries.size;
+    }
+
+    /**
+     * @return 截止时刻, 不存在时返回 Long.MIN_VALUE
+     */
+    public long getDeadline(long id) {
+        Entry entry = mEntries.get(id);
+        return entry == null ? Long.MIN_VALUE : entry.deadline;
+    }
+
+    /**
+     * @return 剩余毫秒数, 已到期返回 0, 不存在时返回 -1
+     */
+    public long remaining(long id) {
+        return remaining(id, timeSource.now());
+    }
+
+    public long remaining(long id, long now) {
+        Entry entry = mEntries.get(id);
+        if (entry == null) return -1;
+        return Math.max(0, entry.deadline - now);
+    }
+
+    /**
+     * 是否已经回调过到期
+     */
+    public boolean isExpired(long id) {
+        Entry entry = mEntries.get(id);
+        return entry != null && entry.level == LEVEL_EXPIRED;
+    }
+
+    public int advance() {
+        return advance(timeSource.now());
+    }
+
+    /**
+     * 推进时间轮到 now, 所有到期的条目在一次回调中通知
+     *
+     * @return 本次到期的个数
+     */
+    public int advance(long now) {
+        long targetTick = floorTick(now);
+        int count = 0;
+
+        while (true) {
+            count = drainDue(count);
+            if (mCurrentTick >= targetTick) break;
+
+            long next = nextEventTick(mCurrentTick);
+            if (next < 0 || next > targetTick) {
+                mCurrentTick = targetTick;
+                break;
+            }
+
+            mCurrentTick = next;
+            //第 0 层的槽不会是 0, 低位为 0 说明是高层的槽开始下放
+            if ((next & SLOT_MASK) == 0) cascade(next);
+            expireSlot((int) (next & SLOT_MASK));
+        }
+
+        if (count > 0 && mListener != null) {
+            mListener.onExpired(mExpiredBuffer, count);
+        }
+        return count;
+    }
+
+    /**
+     * 距离下一次可能有条目到期的毫秒数, 用于安排下一次推进
+     *
+     * @return 没有未到期的条目时返回 -1
+     */
+    public long nextExpiryDelay(long now) {
+        if (mDueHead != null) return 0;
+
+        long next = nextEventTick(mCurrentTick);
+        if (next < 0) return -1;
+        return Math.max(0, next * tickMillis - now);
+    }
+
+    /**
+     * current 之后下一个需要处理的刻度: 第 0 层下一个有条目的槽, 或者更高层下一个有条目的槽开始下放的时刻.
+     * 每层的条目都在当前位置之后, 从低到高找到的第一个就是最近的, 中间的空轮直接跳过
+     *
+     * @return 没有未到期的条目时返回 -1
+     */
+    private long nextEventTick(long current) {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = level * SLOT_BITS;
+            int index = (int) ((current >>> shift) & SLOT_MASK);
+            long candidates = index == SLOT_MASK ? 0 : occupied[level] & (-1L << (index + 1));
+            if (candidates == 0) continue;
+
+            int upper = shift + SLOT_BITS;
+            long base = upper >= 64 ? 0 : (current >>> upper) << upper;
+            return base + ((long) Long.numberOfTrailingZeros(candidates) << shift);
+        }
+        return -1;
+    }
+
+    private void schedule(Entry entry) {
+        long expireTick = entry.expireTick;
+        long current = mCurrentTick;
+        if (expireTick <= current) {
+            entry.level = LEVEL_DUE;
+            entry.slot = 0;
+            entry.prev = null;
+            entry.next = mDueHead;
+            if (mDueHead != null) mDueHead.prev = entry;
+            mDueHead = entry;
+            return;
+        }
+
+        int highBit = 63 - Long.numberOfLeadingZeros(expireTick ^ current);
+        int level = highBit / SLOT_BITS;
+        int slot = (int) ((expireTick >>> (level * SLOT_BITS)) & SLOT_MASK);
+
+        Entry head = wheel[level][slot];
+        entry.level = level;
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) head.prev = entry;
+        wheel[level][slot] = entry;
+        occupied[level] |= 1L << slot;
+    }
+
+    private void unlink(Entry entry) {
+        int level = entry.level;
+        if (level == LEVEL_EXPIRED) return;
+
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else if (level == LEVEL_DUE) {
+            mDueHead = entry.next;
+        } else {
+            wheel[level][entry.slot] = entry.next;
+            if (entry.next == null) occupied[level] &= ~(1L << entry.slot);
+        }
+        if (entry.next != null) entry.next.prev = entry.prev;
+
+        entry.prev = null;
+        entry.next = null;
+        entry.level = LEVEL_EXPIRED;
+    }
+
+    /**
+     * 进入新的一轮时, 从高到低把对应槽的条目重新放入时间轮
+     */
+    private void cascade(long tick) {
+        int top = 0;
+        for (int level = 1; level < LEVELS; level++) {
+            long mask = level * SLOT_BITS >= 64 ? -1L : (1L << (level * SLOT_BITS)) - 1;
+            if ((tick & mask) != 0) break;
+            top = level;
+        }
+        for (int level = top; level >= 1; level--) {
+            int slot = (int) ((tick >>> (level * SLOT_BITS)) & SLOT_MASK);
+            Entry entry = wheel[level][slot];
+            wheel[level][slot] = null;
+            occupied[level] &= ~(1L << slot);
+            while (entry != null) {
+                Entry next = entry.next;
+                schedule(entry);
+                entry = next;
+            }
+        }
+    }
+
+    private void expireSlot(int slot) {
+        Entry entry = wheel[0][slot];
+        wheel[0][slot] = null;
+        occupied[0] &= ~(1L << slot);
+        while (entry != null) {
+            Entry next = entry.next;
+            schedule(entry);
+            entry = next;
+        }
+    }
+
+    /**
+     * 把等待回调的条目标记为已到期并写入回调缓冲
+     */
+    private int drainDue(int count) {
+        Entry entry = mDueHead;
+        mDueHead = null;
+        while (entry != null) {
+            Entry next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            entry.level = LEVEL_EXPIRED;
+
+            if (count == mExpiredBuffer.length) {
+                long[] buffer = new long[count * 2];
+                System.arraycopy(mExpiredBuffer, 0, buffer, 0, count);
+                mExpiredBuffer = buffer;
+            }
+            mExpiredBuffer[count++] = entry.id;
+            entry = next;
+        }
+        return count;
+    }
+
+    private long floorTick(long time) {
+        long tick = time / tickMillis;
+        return time < 0 && tick * tickMillis != time ? tick - 1 : tick;
+    }
+
+    private long ceilTick(long time) {
+        long tick = time / tickMillis;
+        return time > 0 && tick * tickMillis != time ? tick + 1 : tick;
+    }
+
+    /**
+     * long 到条目的开放寻址表, 查找时不装箱
+     */
+    private static final class EntryMap {
+        private Entry[] table = new Entry[64];
+        int size;
+
+        Entry get(long id) {
+            Entry[] t = table;
+            int mask = t.length - 1;
+            for (int i = hash(id) & mask; ; i = (i + 1) & mask) {
+                Entry entry = t[i];
+                if (entry == null || entry.id == id) return entry;
+            }
+        }
+
+        void put(long id, Entry value) {
+            if ((size + 1) * 4 > table.length * 3) resize();
+            Entry[] t = table;
+            int mask = t.length - 1;
+            int i = hash(id) & mask;
+            while (t[i] != null) {
+                if (t[i].id == id) {
+                    t[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            t[i] = value;
+            size++;
+        }
+
+        Entry remove(long id) {
+            Entry[] t = table;
+            int mask = t.length - 1;
+            int i = hash(id) & mask;
+            while (t[i] != null && t[i].id != id) {
+                i = (i + 1) & mask;
+            }
+            Entry removed = t[i];
+            if (removed == null) return null;
+
+            //后移删除, 保持探测链连续
+            int hole = i;
+            for (int j = (i + 1) & mask; t[j] != null; j = (j + 1) & mask) {
+                int home = hash(t[j].id) & mask;
+                boolean movable = hole <= j ? (home <= hole || home > j) : (home <= hole && home > j);
+                if (movable) {
+                    t[hole] = t[j];
+                    hole = j;
+                }
+            }
+            t[hole] = null;
+            size--;
+            return removed;
+        }
+
+        void clear() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = null;
+            }
+            size = 0;
+        }
+
+        private void resize() {
+            Entry[] old = table;
+            table = new Entry[old.length * 2];
+            size = 0;
+            for (Entry entry : old) {
+                if (entry != null) put(entry.id, entry);
+            }
+        }
+
+        private static int hash(long id) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.mr.timeindicatorview;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 时长拆分, 默认模式
+ * <p>
+ * 结果与 {@link TimeField#valueOf} 一致 (月按30天, 年按365天). 相邻两次时间差小于字段单位时,
+ * 由上一次的结果进位或借位得到新值, 不做除法和取余; 差值过大或越过取余范围时才完整计算.
+ */
+public class DurationDecomposer implements TimeDecomposer {
+
+    /**
+     * 每个字段的 time % 范围
+     */
+    private final long[] rests = new long[TimeField.COUNT];
+
+    /**
+     * 每个字段的 rest % 单位
+     */
+    private final long[] subs = new long[TimeField.COUNT];
+
+    private final int[] values = new int[TimeField.COUNT];
+
+    /**
+     * 增量状态有效的字段
+     */
+    private int validMask;
+
+    private long lastTime;
+
+    @Override
+    public void decompose(long time, int fieldMask, int[] fields) {
+        long delta = time - lastTime;
+        lastTime = time;
+
+        for (int field = 0; field < TimeField.COUNT; field++) {
+            int bit = 1 << field;
+            if ((fieldMask & bit) == 0) {
+                validMask &= ~bit;
+                continue;
+            }
+            if ((validMask & bit) == 0 || !carry(field, delta)) {
+                compute(field, time);
+                validMask |= bit;
+            }
+            fields[field] = values[field];
+        }
+    }
+
+    /**
+     * 完整计算一个字段
+     */
+    private void compute(int field, long time) {
+        long unit = TimeField.unitOf(field);
+        long rest = time % TimeField.moduloOf(field);
+        rests[field] = rest;
+        subs[field] = rest % unit;
+        values[field] = (int) (rest / unit);
+    }
+
+    /**
+     * 在上一次结果上增量计算
+     *
+     * @return 无法增量计算时返回 false
+     */
+    private boolean carry(int field, long delta) {
+        long rest = rests[field] + delta;
+        if (rest < 0 || rest >= TimeField.moduloOf(field) || rests[field] < 0) {
+            return false;
+        }
+
+        long unit = TimeField.unitOf(field);
+        if (unit == 1) {
+            rests[field] = rest;
+            values[field] = (int) rest;
+            return true;
+        }
+        if (delta >= unit || delta <= -unit) {
+            return false;
+        }
+
+        long sub = subs[field] + delta;
+        int value = values[field];
+        if (sub >= unit) {
+            sub -= unit;
+            value++;
+        } else if (sub < 0) {
+            sub += unit;
+            value--;
+        }
+        rests[field] = rest;
+        subs[field] = sub;
+        values[field] = value;
+        return true;
+    }
+
+    @Override
+    public long delayToNextChange(long time, int fieldMask, boolean countdown) {
+        if (time < 0) {
+            int finest = 31 - Integer.numberOfLeadingZeros(fieldMask);
+            return TimeField.unitOf(finest);
+        }
+
+        long delay = Long.MAX_VALUE;
+        for (int field = 0; field < TimeField.COUNT; field++) {
+            if ((fieldMask & (1 << field)) != 0) {
+                delay = Math.min(delay, TimeField.delayToNextChange(field, time, countdown));
+            }
+        }
+        return delay;
+    }
+}
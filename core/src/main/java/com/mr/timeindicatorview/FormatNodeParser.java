@@ -0,0 +1,37 @@
+package com.mr.timeindicatorview;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @auther: pengwang
+ * @date: 2022/5/16
+ * @description: 时间格式解析, 实际解析由 {@link CompiledFormat} 完成并缓存
+ * <p>
+ * 编译结果在视图间共享且不可修改, 这里每次解析都复制出调用方可以自由修改的 {@link FormatNode}.
+ */
+public class FormatNodeParser {
+
+    public String dateFormat;
+
+    private List<FormatNode> formatNodes = new ArrayList<>();
+
+    public FormatNodeParser(String dateFormat) {
+        this.dateFormat = dateFormat;
+    }
+
+    public void parsing() {
+        formatNodes.clear();
+        for (FormatToken token : CompiledFormat.compile(dateFormat).getTokens()) {
+            FormatNode node = new FormatNode();
+            node.format = token.format;
+            node.isPointer = token.isPointer;
+            formatNodes.add(node);
+        }
+    }
+
+    public List<FormatNode> getFormatNodes() {
+        return formatNodes;
+    }
+
+}
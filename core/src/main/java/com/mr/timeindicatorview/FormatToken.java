@@ -0,0 +1,23 @@
+package com.mr.timeindicatorview;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: {@link CompiledFormat} 中的一个节点, 不可变, 随编译结果在多个视图间共享
+ * <p>
+ * 对外兼容的可修改节点见 {@link FormatNode}.
+ */
+public final class FormatToken {
+
+    public final String format;
+
+    /**
+     * 时间指针或后缀
+     */
+    public final boolean isPointer;
+
+    FormatToken(String format, boolean isPointer) {
+        this.format = format;
+        this.isPointer = isPointer;
+    }
+}
@@ -0,0 +1,298 @@
+package com.mr.timeindicatorview;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 不依赖 Android 的指示器布局和刷新
+ * <p>
+ * 管理格式对应的节点, 计算每个格子的位置, 把拆分后的时间写入指针并标记变化的格子.
+ * 文字尺寸通过 {@link TextMeasurer} 读取, TimeIndicatorView 只负责读取属性, 绘制和调度,
+ * 这里的计算可以直接在 JVM 上测试和做基准测试.
+ */
+public final class IndicatorLayout {
+
+    /**
+     * {@link #saveGeometry()} 中每个节点保存的值个数
+     */
+    private static final int GEOMETRY_STRIDE = 6;
+
+    private final List<NodeRect> mNodes = new ArrayList<>();
+
+    /**
+     * 格式变短时多出的节点, 格式变长时优先复用
+     */
+    private final List<NodeRect> mSpareNodes = new ArrayList<>();
+
+    private CompiledFormat mFormat = CompiledFormat.EMPTY;
+
+    /**
+     * 拆分结果, 下标见 {@link TimeField}
+     */
+    private final int[] mFieldValues = new int[TimeField.COUNT];
+
+    private int pointerWidth;
+    private int pointerHeight;
+    private int suffixMarginLeft;
+    private int suffixMarginRight;
+    private boolean fixedDigitWidth;
+    private boolean digitCells;
+    private int digitCellSpacing;
+
+    /**
+     * 最近一次刷新后数字格子不够用, 需要重新布局
+     */
+    private boolean mNeedsLayout;
+
+    public List<NodeRect> getNodes() {
+        return mNodes;
+    }
+
+    public CompiledFormat getFormat() {
+        return mFormat;
+    }
+
+    public void setPointerSize(int width, int height) {
+        pointerWidth = width;
+        pointerHeight = height;
+    }
+
+    public void setSuffixMargin(int left, int right) {
+        suffixMarginLeft = left;
+        suffixMarginRight = right;
+    }
+
+    public void setFixedDigitWidth(boolean fixedDigitWidth) {
+        this.fixedDigitWidth = fixedDigitWidth;
+    }
+
+    /**
+     * 每个数字使用单独的格子
+     *
+     * @param spacing 同一字段相邻数字格子的间距
+     */
+    public void setDigitCells(boolean enabled, int spacing) {
+        digitCells = enabled;
+        digitCellSpacing = spacing;
+    }
+
+    /**
+     * 按格式重置节点, 复用已有的节点, 清空指针文字
+     *
+     * @return 新创建的节点数
+     */
+    public int setFormat(CompiledFormat format) {
+        mFormat = format;
+
+        int size = format.size();
+        while (mNodes.size() > size) {
+            mSpareNodes.add(mNodes.remove(mNodes.size() - 1));
+        }
+
+        int allocated = 0;
+        for (int i = 0; i < size; i++) {
+            NodeRect nodeRect;
+            if (i < mNodes.size()) {
+                nodeRect = mNodes.get(i);
+            } else {
+                if (mSpareNodes.isEmpty()) {
+                    nodeRect = new NodeRect();
+                    allocated++;
+                } else {
+                    nodeRect = mSpareNodes.remove(mSpareNodes.size() - 1);
+                }
+                mNodes.add(nodeRect);
+            }
+            nodeRect.reset(format.get(i));
+        }
+        return allocated;
+    }
+
+    /**
+     * 内容高度, 不含内边距
+     */
+    public int getContentHeight(TextMeasurer suffixMeasurer) {
+        return Math.max(pointerHeight, suffixMeasurer.getDigitHeight());
+    }
+
+    /**
+     * 从 (left, top) 开始逐个节点排列
+     * <p>
+     * 文字基线 ty 也从 top 算起, 文字在指针框内垂直居中. 最初的实现中 ty 不含 top,
+     * 设置了 paddingTop 的视图文字会比指针框高出 paddingTop, 现在这类视图的文字整体下移到框内.
+     *
+     * @return 最后一个节点的右边界
+     */
+    public int measure(TextMeasurer timeMeasurer, TextMeasurer suffixMeasurer, int left, int top) {
+        int ctw = left;
+        for (int i = 0, size = mNodes.size(); i < size; i++) {
+            NodeRect nodeRect = mNodes.get(i);
+            if (nodeRect.isPointer) {
+                int textH = timeMeasurer.getDigitHeight();
+
+                int width = pointerWidth;
+                if (digitCells) {
+                    nodeRect.cells = Math.max(1, Math.max(nodeRect.length,
+                            TimeField.digitsOf(nodeRect.field)));
+                    width = nodeRect.cells * pointerWidth + (nodeRect.cells - 1) * digitCellSpacing;
+                } else {
+                    nodeRect.cells = 0;
+                }
+
+                nodeRect.bl = ctw;
+                nodeRect.bt = top;
+                nodeRect.br = ctw + width;
+                nodeRect.bb = top + pointerHeight;
+
+                layoutPointerText(nodeRect, timeMeasurer);
+                nodeRect.ty = top + (int) (((float) pointerHeight) / 2 + ((float) textH) / 2);
+
+                ctw = ctw + width;
+            } else {
+                int textW = suffixMeasurer.getSuffixWidth(nodeRect.format);
+                int textH = suffixMeasurer.getSuffixHeight(nodeRect.format);
+
+                nodeRect.bl = ctw;
+                nodeRect.bt = top;
+                nodeRect.br = ctw + suffixMarginLeft + textW + suffixMarginRight;
+                nodeRect.bb = top + Math.max(pointerHeight, textH);
+
+                nodeRect.tx = ctw + suffixMarginLeft;
+                nodeRect.ty = top + (int) (((float) pointerHeight) / 2 + ((float) textH) / 2);
+
+                ctw = ctw + suffixMarginLeft + textW + suffixMarginRight;
+            }
+        }
+        mNeedsLayout = false;
+        return ctw;
+    }
+
+    /**
+     * 保存当前各节点的位置, 每个节点依次为 bl, br, bb, tx, ty, cells, 其中 bb 和 ty 相对 bt 保存
+     *
+     * @see #applyGeometry(int[], TextMeasurer, int, int)
+     */
+    public int[] saveGeometry() {
+        int size = mNodes.size();
+        int[] geometry = new int[size * GEOMETRY_STRIDE];
+        for (int i = 0; i < size; i++) {
+            NodeRect rect = mNodes.get(i);
+            int index = i * GEOMETRY_STRIDE;
+            geometry[index] = rect.bl;
+            geometry[index + 1] = rect.br;
+            geometry[index + 2] = rect.bb - rect.bt;
+            geometry[index + 3] = rect.tx;
+            geometry[index + 4] = rect.ty - rect.bt;
+            geometry[index + 5] = rect.cells;
+        }
+        return geometry;
+    }
+
+    /**
+     * 直接套用 {@link #saveGeometry()} 保存的位置, 平移到 (left, top), 只重新计算指针文字的水平位置.
+     * 保存时的格式和参数必须与当前一致.
+     *
+     * @return 是否套用成功, 节点数不一致或数字格子不够时返回 false, 需要调用 {@link #measure}
+     */
+    public boolean applyGeometry(int[] geometry, TextMeasurer timeMeasurer, int left, int top) {
+        int size = mNodes.size();
+        if (geometry.length != size * GEOMETRY_STRIDE) return false;
+        if (digitCells) {
+            for (int i = 0; i < size; i++) {
+                NodeRect rect = mNodes.get(i);
+                if (rect.isPointer && rect.length > geometry[i * GEOMETRY_STRIDE + 5]) return false;
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            NodeRect rect = mNodes.get(i);
+            int index = i * GEOMETRY_STRIDE;
+            rect.bl = left + geometry[index];
+            rect.bt = top;
+            rect.br = left + geometry[index + 1];
+            rect.bb = top + geometry[index + 2];
+            rect.ty = top + geometry[index + 4];
+            rect.cells = geometry[index + 5];
+            if (rect.isPointer) {
+                layoutPointerText(rect, timeMeasurer);
+            } else {
+                rect.tx = left + geometry[index + 3];
+            }
+        }
+        mNeedsLayout = false;
+        return true;
+    }
+
+    /**
+     * 计算指针文字的水平位置, 只做加法
+     * <p>
+     * 等宽排列时按字段固定位数计算, 与当前数字无关; 否则按当前数字的实际宽度居中
+     */
+    public void layoutPointerText(NodeRect rect, TextMeasurer measurer) {
+        float textW;
+        if (fixedDigitWidth) {
+            int digits = Math.max(rect.length, TimeField.digitsOf(rect.field));
+            textW = measurer.getMaxDigitWidth() * digits;
+        } else {
+            textW = measurer.measureDigits(rect.chars, rect.length);
+        }
+        rect.tWidth = (int) textW;
+        rect.tx = (int) (rect.bl + (pointerWidth - textW) / 2);
+    }
+
+    /**
+     * 拆分时间并写入指针, 只拆分格式中出现的字段, 不产生新对象
+     *
+     * @param fieldMask       需要拆分的字段, 见 {@link TickScheduler#getFieldMask()}
+     * @param measurer        为空时只写入文字, 文字位置在下一次 {@link #measure} 时计算
+     * @param transitionStart 不小于 0 时, 数值变化的指针记录切换动画的起点, 否则结束它们的过渡
+     * @return 是否有指针变化, 变化的指针标记为 dirty
+     */
+    public boolean update(TimeDecomposer decomposer, int fieldMask, long time,
+                          TextMeasurer measurer, long transitionStart) {
+        boolean changed = false;
+
+        int[] values = mFieldValues;
+        decomposer.decompose(time, fieldMask, values);
+
+        boolean transition = transitionStart >= 0 && !digitCells;
+
+        for (int i = 0, size = mNodes.size(); i < size; i++) {
+            NodeRect rect = mNodes.get(i);
+            if (!rect.isPointer) continue;
+
+            int value = rect.field == TimeField.NONE ? 0 : values[rect.field];
+            if (rect.length > 0 && rect.value != value) {
+                if (transition) {
+                    rect.savePrevious(transitionStart);
+                } else {
+                    //跳变时结束正在进行的过渡, 不从过期的旧文字切换过来
+                    rect.transitionStart = -1;
+                }
+            }
+            if (rect.setValue(value, TimeField.digitsOf(rect.field))) {
+                rect.dirty = true;
+                //只移动文字位置, 不需要重新布局; 等宽排列时位置不变
+                if (measurer != null
+                        && (!fixedDigitWidth || rect.length > TimeField.digitsOf(rect.field))) {
+                    layoutPointerText(rect, measurer);
+                }
+                //数字格子不够时增加格子
+                if (digitCells && rect.length > rect.cells && rect.cells > 0) {
+                    mNeedsLayout = true;
+                }
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 数字位数超过了布局时的格子数, 需要重新测量
+     */
+    public boolean needsLayout() {
+        return mNeedsLayout;
+    }
+}
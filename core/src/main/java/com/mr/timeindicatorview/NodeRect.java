@@ -0,0 +1,129 @@
+package com.mr.timeindicatorview;
+
+/**
+ * @auther: pengwang
+ * @date: 2022/5/16
+ * @description:
+ */
+public class NodeRect {
+
+    /**
+     * int 最多10位数字加一个负号
+     */
+    private static final int MAX_CHARS = 11;
+
+    public boolean isPointer;
+    public String format;
+    public int field = TimeField.NONE;
+
+    /**
+     * 指针文字缓冲, 有效长度为 length
+     */
+    public final char[] chars = new char[MAX_CHARS];
+    public int length;
+    public int value;
+
+    /**
+     * 内容已变化但还没有绘制到快照缓存中
+     */
+    public boolean dirty;
+
+    /**
+     * 数字切换动画的上一个文字, 预先分配, 动画过程中不产生新对象
+     */
+    public final char[] prevChars = new char[MAX_CHARS];
+    public int prevLength;
+    public int prevValue;
+    public int prevTx;
+
+    /**
+     * 切换动画开始的时间, 没有动画时为 -1
+     */
+    public long transitionStart = -1;
+
+    public int tx;
+    public int ty;
+    public int tWidth;
+    public int tHeight;
+
+    public int bl;
+    public int bt;
+    public int br;
+    public int bb;
+    public int bWidth;
+    public int bHeight;
+
+    /**
+     * 每个数字单独一个格子时的格子数, 否则为 0
+     */
+    public int cells;
+
+    /**
+     * 复用节点显示新的格式节点, 清空文字, 下一次写入一定会报告变化
+     */
+    public void reset(FormatToken node) {
+        isPointer = node.isPointer;
+        format = node.format;
+        field = node.isPointer ? TimeField.of(node.format) : TimeField.NONE;
+        length = 0;
+        value = 0;
+        dirty = true;
+        transitionStart = -1;
+    }
+
+    /**
+     * 保存当前文字作为切换动画的起点
+     */
+    public void savePrevious(long start) {
+        System.arraycopy(chars, 0, prevChars, 0, length);
+        prevLength = length;
+        prevValue = value;
+        prevTx = tx;
+        transitionStart = start;
+    }
+
+    /**
+     * 根据时间写入指针文字, 只计算本节点对应的字段
+     *
+     * @return 显示内容是否发生变化
+     */
+    public boolean setTime(long time) {
+        if (field == TimeField.NONE) {
+            return setValue(0, TimeField.digitsOf(field));
+        } else {
+            return setValue(TimeField.valueOf(field, time), TimeField.digitsOf(field));
+        }
+    }
+
+    /**
+     * 以最少 digits 位(不足补0)写入数值, 不产生新对象
+     *
+     * @return 与上次写入的数值不同时返回 true
+     */
+    public boolean setValue(int value, int digits) {
+        if (length > 0 && this.value == value) {
+            return false;
+        }
+        this.value = value;
+
+        long v = value;
+        int start = 0;
+        if (v < 0) {
+            chars[start++] = '-';
+            v = -v;
+        }
+
+        int count = 1;
+        for (long n = v / 10; n > 0; n /= 10) {
+            count++;
+        }
+        int end = start + Math.max(count, digits);
+
+        for (int i = end - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + (v % 10));
+            v /= 10;
+        }
+        length = end;
+        return true;
+    }
+}
@@ -0,0 +1,35 @@
+package com.mr.timeindicatorview;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 文字度量, 布局只通过它读取文字尺寸
+ * <p>
+ * Android 上由 TextMetricsCache.Metrics 实现, 纯 JVM 的测试和基准测试可以给出固定的字宽.
+ */
+public interface TextMeasurer {
+
+    /**
+     * 单个数字或负号的宽度
+     */
+    float getCharWidth(char c);
+
+    /**
+     * 最宽数字的宽度, 用于等宽排列
+     */
+    float getMaxDigitWidth();
+
+    /**
+     * 数字的高度
+     */
+    int getDigitHeight();
+
+    /**
+     * 数字文字的墨迹宽度, 与 Paint.getTextBounds 一致, 不含首尾字符两侧的留白
+     */
+    float measureDigits(char[] chars, int length);
+
+    int getSuffixWidth(String suffix);
+
+    int getSuffixHeight(String suffix);
+}
@@ -0,0 +1,99 @@
+package com.mr.timeindicatorview;
+
+import java.util.List;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 计时调度, 根据格式中最精细的字段决定刷新间隔, 并对齐到字段变化的时刻
+ */
+public class TickScheduler {
+
+    /**
+     * 格式中包含的时间字段
+     */
+    private int fieldMask;
+
+    /**
+     * 显示毫秒时的刷新间隔
+     */
+    private long frameInterval;
+
+    /**
+     * 用于计算字段变化时刻, 与视图拆分时间使用的拆分器一致
+     */
+    private TimeDecomposer decomposer = new DurationDecomposer();
+
+    public TickScheduler(long frameInterval) {
+        this.frameInterval = frameInterval;
+    }
+
+    public void setFrameInterval(long frameInterval) {
+        this.frameInterval = frameInterval;
+    }
+
+    public long getFrameInterval() {
+        return frameInterval;
+    }
+
+    public void setDecomposer(TimeDecomposer decomposer) {
+        this.decomposer = decomposer;
+    }
+
+    public TimeDecomposer getDecomposer() {
+        return decomposer;
+    }
+
+    /**
+     * 格式中包含的时间字段, 第 n 位对应 {@link TimeField} 中的第 n 个字段
+     */
+    public int getFieldMask() {
+        return fieldMask;
+    }
+
+    /**
+     * 读取节点中的时间字段
+     */
+    public void setNodes(List<NodeRect> nodes) {
+        fieldMask = 0;
+        if (nodes != null) {
+            for (int i = 0, size = nodes.size(); i < size; i++) {
+                NodeRect rect = nodes.get(i);
+                if (rect.isPointer && rect.field != TimeField.NONE) {
+                    fieldMask |= 1 << rect.field;
+                }
+            }
+        }
+    }
+
+    /**
+     * 格式中是否显示毫秒, 显示毫秒时每一帧都会变化
+     */
+    public boolean hasMilliseconds() {
+        return (fieldMask & (1 << TimeField.MILLISECOND)) != 0;
+    }
+
+    /**
+     * 格式中最精细字段对应的刷新粒度, 没有时间字段时返回 0
+     */
+    public long getGranularity() {
+        if (fieldMask == 0) return 0;
+        if ((fieldMask & (1 << TimeField.MILLISECOND)) != 0) return frameInterval;
+
+        int finest = 31 - Integer.numberOfLeadingZeros(fieldMask);
+        return TimeField.unitOf(finest);
+    }
+
+    /**
+     * 计算距离下一次显示变化的毫秒数, 没有时间字段时返回 -1 表示不需要刷新
+     *
+     * @param time      当前显示的时间
+     * @param countdown 是否为倒计时
+     */
+    public long nextDelay(long time, boolean countdown) {
+        if (fieldMask == 0) return -1;
+        if ((fieldMask & (1 << TimeField.MILLISECOND)) != 0) return frameInterval;
+
+        return decomposer.delayToNextChange(time, fieldMask, countdown);
+    }
+}
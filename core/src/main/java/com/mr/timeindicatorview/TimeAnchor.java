@@ -0,0 +1,150 @@
+package com.mr.timeindicatorview;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 计时锚点
+ * <p>
+ * 记录开始计时时时间源的读数, 显示时间总是由 "起始时间 ± (当前读数 - 锚点)" 直接算出,
+ * 刷新来得晚只会晚显示, 不会累计误差.
+ */
+public class TimeAnchor {
+
+    private TimeSource timeSource;
+
+    /**
+     * 起始显示时间
+     */
+    private long startTime;
+
+    private boolean countdown;
+
+    /**
+     * 开始计时时时间源的读数
+     */
+    private long anchorTime;
+
+    private boolean running;
+
+    public TimeAnchor(TimeSource timeSource) {
+        this.timeSource = timeSource;
+    }
+
+    public TimeSource getTimeSource() {
+        return timeSource;
+    }
+
+    /**
+     * 更换时间源, 正在计时时保持当前显示时间不变
+     */
+    public void setTimeSource(TimeSource timeSource) {
+        if (running) {
+            startTime = currentTime();
+            anchorTime = timeSource.now();
+        }
+        this.timeSource = timeSource;
+    }
+
+    /**
+     * 设置起始时间和计时方向, 并停止计时
+     */
+    public void reset(long startTime, boolean countdown) {
+        this.startTime = startTime;
+        this.countdown = countdown;
+        this.running = false;
+    }
+
+    /**
+     * 以目标时刻为锚点开始计时, 倒计时显示距离目标的剩余时间, 否则显示已经过去的时间,
+     * 不读取时间源
+     *
+     * @param targetTime 与时间源同一时间基准的目标时刻
+     */
+    public void startAt(long targetTime, boolean countdown) {
+        this.startTime = 0;
+        this.countdown = countdown;
+        this.anchorTime = targetTime;
+        this.running = true;
+    }
+
+    /**
+     * 显示时间源读数加上固定偏移, 例如墙上时间与单调时钟的差, 正计时且不读取时间源
+     */
+    public void follow(long offset) {
+        this.startTime = offset;
+        this.countdown = false;
+        this.anchorTime = 0;
+        this.running = true;
+    }
+
+    public void start() {
+        anchorTime = timeSource.now();
+        running = true;
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isCountdown() {
+        return countdown;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * 开始计时时时间源的读数, 没有计时时无意义
+     */
+    public long getAnchorTime() {
+        return anchorTime;
+    }
+
+    /**
+     * 恢复之前保存的状态, 不读取时间源
+     */
+    public void restore(long startTime, boolean countdown, long anchorTime, boolean running) {
+        this.startTime = startTime;
+        this.countdown = countdown;
+        this.anchorTime = anchorTime;
+        this.running = running;
+    }
+
+    /**
+     * 保存时的锚点换算到当前时间源上
+     * <p>
+     * 时间源读数没有变小时(旋转屏幕, 进程被回收后重建)锚点仍然有效, 原样返回; 读数变小说明
+     * 时间源已经重置(例如设备重启), 按墙上时间估算保存后经过的时间.
+     *
+     * @param savedNow      保存时时间源的读数
+     * @param savedWallTime 保存时的墙上时间
+     * @param now           当前时间源的读数
+     * @param wallTime      当前墙上时间
+     */
+    public static long rebase(long anchorTime, long savedNow, long savedWallTime,
+                              long now, long wallTime) {
+        if (now >= savedNow) return anchorTime;
+
+        long elapsed = Math.max(0, wallTime - savedWallTime);
+        return now - elapsed - (savedNow - anchorTime);
+    }
+
+    /**
+     * 时间源读数为 now 时应当显示的时间
+     */
+    public long timeAt(long now) {
+        if (!running) return startTime;
+
+        long elapsed = now - anchorTime;
+        return countdown ? startTime - elapsed : startTime + elapsed;
+    }
+
+    public long currentTime() {
+        return timeAt(timeSource.now());
+    }
+}
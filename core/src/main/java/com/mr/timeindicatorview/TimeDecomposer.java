@@ -0,0 +1,26 @@
+package com.mr.timeindicatorview;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 时间拆分器, 把毫秒数拆分成年月日时分秒毫秒
+ * <p>
+ * 字段下标见 {@link TimeField}, fieldMask 的第 n 位表示需要第 n 个字段.
+ * 实现可以保存上一次的结果用于增量计算, 因此每个视图使用自己的实例, 只能在一个线程使用.
+ */
+public interface TimeDecomposer {
+
+    /**
+     * 拆分时间, 只保证 fieldMask 中的字段写入 fields
+     *
+     * @param fields 长度至少为 {@link TimeField#COUNT}
+     */
+    void decompose(long time, int fieldMask, int[] fields);
+
+    /**
+     * 计算 fieldMask 中任一字段下一次变化需要经过的毫秒数
+     *
+     * @param countdown 为 true 时时间递减, 否则递增
+     */
+    long delayToNextChange(long time, int fieldMask, boolean countdown);
+}
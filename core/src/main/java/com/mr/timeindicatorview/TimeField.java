@@ -0,0 +1,124 @@
+package com.mr.timeindicatorview;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 时间字段, 负责把毫秒数拆分成各个指针需要的数值
+ */
+public final class TimeField {
+
+    public static final int NONE = -1;
+    public static final int YEAR = 0;
+    public static final int MONTH = 1;
+    public static final int DAY = 2;
+    public static final int HOURS = 3;
+    public static final int MINUTE = 4;
+    public static final int SECONDS = 5;
+    public static final int MILLISECOND = 6;
+
+    public static final int COUNT = 7;
+
+    /**
+     * 各字段的格式符
+     */
+    public static final String FORMAT_YEAR = "yyyy";
+    public static final String FORMAT_MONTH = "MM";
+    public static final String FORMAT_DAY = "dd";
+    public static final String FORMAT_HOURS = "HH";
+    public static final String FORMAT_MINUTE = "mm";
+    public static final String FORMAT_SECONDS = "ss";
+    public static final String FORMAT_MILLISECOND = "SSS";
+
+    static final long TIME_OF_SECONDS = 1000;
+    static final long TIME_OF_MINUTE = 60 * TIME_OF_SECONDS;
+    static final long TIME_OF_HOURS = 60 * TIME_OF_MINUTE;
+    static final long TIME_OF_DAY = 24 * TIME_OF_HOURS;
+    static final long TIME_OF_MONTH = 30L * TIME_OF_DAY;
+    static final long TIME_OF_YEAR = 365L * TIME_OF_DAY;
+
+    /**
+     * 每个字段的单位
+     */
+    private static final long[] UNITS = {TIME_OF_YEAR, TIME_OF_MONTH, TIME_OF_DAY
+            , TIME_OF_HOURS, TIME_OF_MINUTE, TIME_OF_SECONDS, 1};
+
+    /**
+     * 每个字段取余的范围, 年不取余
+     */
+    private static final long[] MODULI = {Long.MAX_VALUE, TIME_OF_YEAR, TIME_OF_MONTH
+            , TIME_OF_DAY, TIME_OF_HOURS, TIME_OF_MINUTE, TIME_OF_SECONDS};
+
+    /**
+     * 每个字段最少显示位数
+     */
+    private static final int[] DIGITS = {4, 2, 2, 2, 2, 2, 3};
+
+    private TimeField() {
+    }
+
+    /**
+     * 根据格式符获取字段, 不是时间格式符时返回 {@link #NONE}
+     */
+    public static int of(String format) {
+        if (FORMAT_YEAR.equals(format)) {
+            return YEAR;
+        } else if (FORMAT_MONTH.equals(format)) {
+            return MONTH;
+        } else if (FORMAT_DAY.equals(format)) {
+            return DAY;
+        } else if (FORMAT_HOURS.equals(format)) {
+            return HOURS;
+        } else if (FORMAT_MINUTE.equals(format)) {
+            return MINUTE;
+        } else if (FORMAT_SECONDS.equals(format)) {
+            return SECONDS;
+        } else if (FORMAT_MILLISECOND.equals(format)) {
+            return MILLISECOND;
+        }
+        return NONE;
+    }
+
+    /**
+     * 计算单个字段的值, 只做一次取余和一次除法
+     */
+    public static int valueOf(int field, long time) {
+        return (int) ((time % MODULI[field]) / UNITS[field]);
+    }
+
+    /**
+     * 字段的单位时长
+     */
+    public static long unitOf(int field) {
+        return UNITS[field];
+    }
+
+    /**
+     * 字段取余的范围
+     */
+    public static long moduloOf(int field) {
+        return MODULI[field];
+    }
+
+    /**
+     * 计算从 time 开始, 该字段下一次变化需要经过的毫秒数
+     *
+     * @param countdown 为 true 时时间递减, 否则递增
+     */
+    public static long delayToNextChange(int field, long time, boolean countdown) {
+        long unit = UNITS[field];
+        long rest = time % MODULI[field];
+        if (countdown) {
+            //递减到上一个整单位之前一毫秒时数值变化
+            return rest % unit + 1;
+        }
+        //递增到下一个整单位, 或者本轮取余范围结束时数值变化
+        return Math.min(unit - rest % unit, MODULI[field] - rest);
+    }
+
+    /**
+     * 字段最少显示位数
+     */
+    public static int digitsOf(int field) {
+        return field == NONE ? 2 : DIGITS[field];
+    }
+}
@@ -0,0 +1,16 @@
+package com.mr.timeindicatorview;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 时间源, 返回单调递增的毫秒数
+ * <p>
+ * Android 上默认实现为 SystemTimeSource, 测试时可以注入假的时间源
+ */
+public interface TimeSource {
+
+    /**
+     * @return 当前时间, 毫秒
+     */
+    long now();
+}
@@ -0,0 +1,115 @@
+package com.mr.timeindicatorview;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: {@link CalendarDecomposer} 的 UTC 拆分结果
+ * <p>
+ * 缓存上一次时间的 UTC 天数和当天毫秒数, 拆分和计算下一次变化时刻使用同一个时间时只算一次.
+ * 年月日按天缓存当天和前后各一天, 覆盖时区偏移后的当地日期. 只能在一个线程使用.
+ */
+final class WallClockCache {
+
+    /**
+     * 公元1年1月1日到1970年1月1日的天数
+     */
+    private static final long DAYS_0001_TO_1970 = 719162;
+
+    private static final int DAYS_PER_400_YEARS = 146097;
+    private static final int DAYS_PER_100_YEARS = 36524;
+    private static final int DAYS_PER_4_YEARS = 1461;
+    private static final int DAYS_PER_YEAR = 365;
+
+    /**
+     * 每月之前的累计天数, [平年/闰年][月]
+     */
+    private static final int[][] DAYS_BEFORE_MONTH = {
+            {0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334, 365},
+            {0, 31, 60, 91, 121, 152, 182, 213, 244, 274, 305, 335, 366}};
+
+    /**
+     * 缓存的时间及其 UTC 天数和当天毫秒数, 初始为 0 时刻
+     */
+    private long time;
+    private long epochDay;
+    private int msOfDay;
+
+    /**
+     * 按天缓存的年月日, 天数对3取余作为下标, 相邻三天不会互相覆盖
+     */
+    private final long[] dateDays = {Long.MIN_VALUE, Long.MIN_VALUE, Long.MIN_VALUE};
+    private final int[] dates = new int[9];
+
+    /**
+     * 拆分时间, 与上一次相同时直接返回
+     */
+    void update(long time) {
+        if (time == this.time) return;
+        this.time = time;
+
+        long day = floorDiv(time, TimeField.TIME_OF_DAY);
+        epochDay = day;
+        msOfDay = (int) (time - day * TimeField.TIME_OF_DAY);
+    }
+
+    long getEpochDay() {
+        return epochDay;
+    }
+
+    int getMsOfDay() {
+        return msOfDay;
+    }
+
+    /**
+     * 写入1970年1月1日起第 epochDay 天的年月日
+     */
+    void writeDate(long epochDay, int[] fields) {
+        int slot = (int) (epochDay - floorDiv(epochDay, 3) * 3);
+        if (dateDays[slot] != epochDay) {
+            computeDate(epochDay, dates, slot * 3);
+            dateDays[slot] = epochDay;
+        }
+        fields[TimeField.YEAR] = dates[slot * 3];
+        fields[TimeField.MONTH] = dates[slot * 3 + 1];
+        fields[TimeField.DAY] = dates[slot * 3 + 2];
+    }
+
+    /**
+     * 由1970年1月1日起的天数计算年月日, 依次写入 out[index] 起的三个位置
+     */
+    static void computeDate(long epochDay, int[] out, int index) {
+        long days = epochDay + DAYS_0001_TO_1970;
+
+        long n400 = floorDiv(days, DAYS_PER_400_YEARS);
+        int d = (int) (days - n400 * DAYS_PER_400_YEARS);
+        int n100 = Math.min(d / DAYS_PER_100_YEARS, 3);
+        d -= n100 * DAYS_PER_100_YEARS;
+        int n4 = d / DAYS_PER_4_YEARS;
+        d -= n4 * DAYS_PER_4_YEARS;
+        int n1 = Math.min(d / DAYS_PER_YEAR, 3);
+        d -= n1 * DAYS_PER_YEAR;
+
+        int year = (int) (n400 * 400 + n100 * 100 + n4 * 4 + n1 + 1);
+
+        int[] table = DAYS_BEFORE_MONTH[isLeapYear(year) ? 1 : 0];
+        int m = 1;
+        while (d >= table[m]) {
+            m++;
+        }
+        out[index] = year;
+        out[index + 1] = m;
+        out[index + 2] = d - table[m - 1] + 1;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    static long floorDiv(long x, long y) {
+        long q = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) {
+            q--;
+        }
+        return q;
+    }
+}
@@ -0,0 +1,159 @@
+package com.mr.timeindicatorview;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.TimeZone;
+
+/**
+ * @auther: agent
+ * @date: 2026/10/17
+ * @description: 时区在一段时间内的偏移表, 预先找出其中所有的夏令时切换时刻
+ * <p>
+ * TimeZone 在低版本上没有公开的切换规则, 这里按固定步长探测偏移, 发现变化后二分查找到精确的毫秒.
+ * 对象创建后不可修改, 同一时区的视图共用同一张表, 超出范围时重新探测下一段.
+ */
+final class ZoneTransitions {
+
+    /**
+     * 探测步长, 短于任意两次切换的间隔
+     */
+    static final long PROBE_STEP = 6 * TimeField.TIME_OF_HOURS;
+
+    /**
+     * 一张表覆盖的时长
+     */
+    static final long WINDOW = 400 * TimeField.TIME_OF_DAY;
+
+    private static final HashMap<String, ZoneTransitions> sCache = new HashMap<>();
+
+    private final TimeZone zone;
+
+    /**
+     * 表的有效范围 [from, until)
+     */
+    private final long from;
+    private final long until;
+
+    /**
+     * 第 i 段从 starts[i] 开始, 偏移为 offsets[i], starts[0] 为 from
+     */
+    private final long[] starts;
+    private final int[] offsets;
+
+    private ZoneTransitions(TimeZone zone, long from, long until, long[] starts, int[] offsets) {
+        this.zone = zone;
+        this.from = from;
+        this.until = until;
+        this.starts = starts;
+        this.offsets = offsets;
+    }
+
+    /**
+     * 获取覆盖 time 的偏移表, 可以在任意线程调用
+     */
+    static ZoneTransitions obtain(TimeZone zone, long time) {
+        String id = zone.getID();
+        synchronized (sCache) {
+            ZoneTransitions cached = sCache.get(id);
+            if (cached != null && cached.covers(time) && cached.zone.hasSameRules(zone)) {
+                return cached;
+            }
+        }
+
+        ZoneTransitions transitions = probe(zone, time);
+        synchronized (sCache) {
+            sCache.put(id, transitions);
+        }
+        return transitions;
+    }
+
+    /**
+     * 从 time 前一天开始探测 {@link #WINDOW} 时长内的切换
+     */
+    static ZoneTransitions probe(TimeZone zone, long time) {
+        //探测期间时区规则不能被修改
+        zone = (TimeZone) zone.clone();
+
+        long from = (WallClockCache.floorDiv(time, TimeField.TIME_OF_DAY) - 1) * TimeField.TIME_OF_DAY;
+        long until = from + WINDOW;
+
+        long[] starts = new long[4];
+        int[] offsets = new int[4];
+        int count = 0;
+
+        int offset = zone.getOffset(from);
+        starts[count] = from;
+        offsets[count++] = offset;
+
+        long last = from;
+        while (last < until - 1) {
+            long at = Math.min(last + PROBE_STEP, until - 1);
+            int next = zone.getOffset(at);
+            if (next == offset) {
+                last = at;
+                continue;
+            }
+
+            //(low, high] 中第一个偏移为 next 的时刻
+            long low = last;
+            long high = at;
+            while (high - low > 1) {
+                long mid = low + (high - low) / 2;
+                if (zone.getOffset(mid) == next) {
+                    high = mid;
+                } else {
+                    low = mid;
+                }
+            }
+
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            starts[count] = high;
+            offsets[count++] = next;
+            offset = next;
+            last = high;
+        }
+
+        return new ZoneTransitions(zone, from, until,
+                Arrays.copyOf(starts, count), Arrays.copyOf(offsets, count));
+    }
+
+    boolean covers(long time) {
+        return time >= from && time < until;
+    }
+
+    /**
+     * time 所在段的下标, time 必须在有效范围内
+     */
+    int indexOf(long time) {
+        int i = starts.length - 1;
+        while (i > 0 && starts[i] > time) {
+            i--;
+        }
+        return i;
+    }
+
+    int offsetOf(int index) {
+        return offsets[index];
+    }
+
+    long startOf(int index) {
+        return starts[index];
+    }
+
+    /**
+     * 第 index 段的结束时刻, 最后一段在表的范围结束时结束
+     */
+    long endOf(int index) {
+        return index + 1 < starts.length ? starts[index + 1] : until;
+    }
+
+    /**
+     * 范围内切换的次数
+     */
+    int transitionCount() {
+        return starts.length - 1;
+    }
+}
@@ -0,0 +1,57 @@
+package com.mr.timeindicatorview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 时间格式解析测试
+ */
+public class CompiledFormatTest {
+
+    private static String describe(CompiledFormat format) {
+        StringBuilder sb = new StringBuilder();
+        for (FormatToken node : format.getTokens()) {
+            sb.append(node.isPointer ? "[" + node.format + "]" : node.format).append('|');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void parse_defaultFormat() {
+        assertEquals("[yyyy]|-|[MM]|-|[dd]| |[HH]|:|[mm]|:|[ss]|",
+                describe(CompiledFormat.parse("yyyy-MM-dd HH:mm:ss")));
+    }
+
+    @Test
+    public void parse_keepsRepeatedTokensAndArbitraryLiterals() {
+        assertEquals("[HH]|:|[mm]|:|[ss]|:|[SSS]|", describe(CompiledFormat.parse("HH:mm:ss:SSS")));
+        assertEquals("[mm]|,|[mm]|", describe(CompiledFormat.parse("mm,mm")));
+        assertEquals("[dd]|天|[HH]|h|", describe(CompiledFormat.parse("dd天HHh")));
+    }
+
+    @Test
+    public void parse_quotedLiteral() {
+        assertEquals("还剩 |[HH]|:|[mm]|", describe(CompiledFormat.parse("'还剩 'HH:mm")));
+        assertEquals("it's|[ss]|", describe(CompiledFormat.parse("'it''s'ss")));
+        assertEquals("'|[ss]|", describe(CompiledFormat.parse("''ss")));
+    }
+
+    @Test
+    public void compile_isCached() {
+        assertSame(CompiledFormat.compile("HH:mm"), CompiledFormat.compile("HH:mm"));
+        assertSame(CompiledFormat.EMPTY, CompiledFormat.compile(null));
+        assertEquals(0, CompiledFormat.compile("").size());
+    }
+
+    @Test
+    public void parser_returnsCopiesThatDoNotTouchTheCache() {
+        FormatNodeParser parser = new FormatNodeParser("HH:mm");
+        parser.parsing();
+        FormatNode node = parser.getFormatNodes().get(0);
+        assertEquals("HH", node.format);
+
+        node.format = "ss";
+        assertEquals("[HH]|:|[mm]|", describe(CompiledFormat.compile("HH:mm")));
+    }
+}
@@ -0,0 +1,183 @@
+package com.mr.timeindicatorview;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * 批量倒计时测试, 与逐个比较截止时间的结果对照
+ */
+public class CountdownRegistryTest {
+
+    private static class FakeTimeSource implements TimeSource {
+        long now;
+
+        @Override
+        public long now() {
+            return now;
+        }
+    }
+
+    private static class RecordingListener implements CountdownRegistry.ExpiryListener {
+        final Set<Long> expired = new HashSet<>();
+        int batches;
+
+        @Override
+        public void onExpired(long[] ids, int count) {
+            batches++;
+            for (int i = 0; i < count; i++) {
+                assertTrue("expired twice: " + ids[i], expired.add(ids[i]));
+            }
+        }
+    }
+
+    @Test
+    public void expiresEachDeadlineOnceAndNeverEarly() {
+        final long tick = 10;
+        FakeTimeSource source = new FakeTimeSource();
+        source.now = 1_000_000;
+        CountdownRegistry registry = new CountdownRegistry(source, tick);
+        RecordingListener listener = new RecordingListener();
+        registry.setExpiryListener(listener);
+
+        Random random = new Random(3);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long id = 0; id < 5_000; id++) {
+            //从已经过期到几天之后都有
+            long deadline = source.now - 1_000 + (long) (Math.pow(random.nextDouble(), 4) * 3 * 24 * 3600_000L);
+            registry.put(id, deadline);
+            deadlines.put(id, deadline);
+        }
+
+        long end = source.now + 4 * 24 * 3600_000L;
+        while (source.now < end) {
+            source.now += random.nextInt(10) == 0 ? random.nextInt(3_600_000) : random.nextInt(2_000);
+
+            //随机修改和删除
+            if (random.nextInt(4) == 0) {
+                long id = random.nextInt(6_000);
+                if (random.nextBoolean()) {
+                    long deadline = source.now + random.nextInt(600_000);
+                    registry.put(id, deadline);
+                    deadlines.put(id, deadline);
+                    listener.expired.remove(id);
+                } else {
+                    assertEquals(deadlines.remove(id) != null, registry.remove(id));
+                    listener.expired.remove(id);
+                }
+            }
+
+            int batches = listener.batches;
+            int count = registry.advance();
+            assertEquals(count > 0 ? batches + 1 : batches, listener.batches);
+
+            long currentTick = Math.floorDiv(source.now, tick);
+            for (Map.Entry<Long, Long> entry : deadlines.entrySet()) {
+                long id = entry.getKey();
+                boolean due = Math.floorDiv(entry.getValue() + tick - 1, tick) <= currentTick;
+                assertEquals("id " + id + " deadline " + entry.getValue() + " now " + source.now,
+                        due, listener.expired.contains(id));
+                assertEquals(due, registry.isExpired(id));
+                assertEquals(Math.max(0, entry.getValue() - source.now), registry.remaining(id));
+            }
+        }
+        assertEquals(deadlines.size(), registry.size());
+    }
+
+    @Test
+    public void nextExpiryDelay_neverOverslept() {
+        FakeTimeSource source = new FakeTimeSource();
+        CountdownRegistry registry = new CountdownRegistry(source, 10);
+        RecordingListener listener = new RecordingListener();
+        registry.setExpiryListener(listener);
+
+        Random random = new Random(5);
+        long[] deadlines = new long[500];
+        for (int id = 0; id < deadlines.length; id++) {
+            deadlines[id] = random.nextInt(10 * 3600_000);
+            registry.put(id, deadlines[id]);
+        }
+
+        int wakeups = 0;
+        long delay;
+        while ((delay = registry.nextExpiryDelay(source.now)) >= 0) {
+            source.now += delay;
+            registry.advance();
+            wakeups++;
+
+            //所有已经到期的截止时间都已经回调, 最多晚一个刻度
+            for (int id = 0; id < deadlines.length; id++) {
+                if (deadlines[id] + 10 <= source.now) {
+                    assertTrue(listener.expired.contains((long) id));
+                }
+            }
+        }
+        assertEquals(deadlines.length, listener.expired.size());
+        //只在有截止时间的刻度和轮转时唤醒, 远少于逐刻度推进
+        assertTrue("wakeups " + wakeups, wakeups < 10 * 3600_000 / 10 / 20);
+    }
+
+    @Test
+    public void longIdleGap_jumpsStraightToTheOccupiedSlot() {
+        FakeTimeSource source = new FakeTimeSource();
+        CountdownRegistry registry = new CountdownRegistry(source, 10);
+        RecordingListener listener = new RecordingListener();
+        registry.setExpiryListener(listener);
+
+        long deadline = 30L * 24 * 3600_000 + 12_345;
+        registry.put(1, deadline);
+
+        //空闲期间只在各层下放时唤醒, 不会每轮唤醒一次
+        int wakeups = 0;
+        long delay;
+        while ((delay = registry.nextExpiryDelay(source.now)) >= 0) {
+            source.now += delay;
+            registry.advance();
+            wakeups++;
+        }
+        assertTrue(listener.expired.contains(1L));
+        assertTrue(source.now >= deadline && source.now < deadline + 10);
+        assertTrue("wakeups " + wakeups, wakeups <= 6);
+
+        //一次推进跨过很长的空闲期
+        registry.put(2, source.now + 90L * 24 * 3600_000);
+        assertEquals(0, registry.advance(source.now + 90L * 24 * 3600_000 - 10));
+        assertEquals(1, registry.advance(source.now + 90L * 24 * 3600_000));
+    }
+
+    @Test
+    public void unknownId() {
+        CountdownRegistry registry = new CountdownRegistry(new FakeTimeSource());
+        assertEquals(-1, registry.remaining(42));
+        assertEquals(Long.MIN_VALUE, registry.getDeadline(42));
+        assertFalse(registry.remove(42));
+        assertFalse(registry.isExpired(42));
+    }
+
+    @Test
+    public void entryMapSurvivesChurn() {
+        CountdownRegistry registry = new CountdownRegistry(new FakeTimeSource());
+        Random random = new Random(9);
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            //id 集中在少数几个值附近, 制造大量冲突
+            long id = (random.nextInt(200) << 20) * (random.nextBoolean() ? 1L : -1L);
+            if (random.nextBoolean()) {
+                registry.put(id, 1_000 + i);
+                ids.add(id);
+            } else {
+                assertEquals(ids.remove(id), registry.remove(id));
+            }
+            assertEquals(ids.size(), registry.size());
+        }
+        for (long id : ids) {
+            assertTrue(registry.contains(id));
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.mr.timeindicatorview;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 不依赖 Android 的布局和刷新计算
+ */
+public class IndicatorLayoutTest {
+
+    /**
+     * 数字宽 10, "1" 宽 6, 后缀每个字符宽 8, 高 12
+     */
+    private static final TextMeasurer MEASURER = new TextMeasurer() {
+        @Override
+        public float getCharWidth(char c) {
+            return c == '1' ? 6 : 10;
+        }
+
+        @Override
+        public float getMaxDigitWidth() {
+            return 10;
+        }
+
+        @Override
+        public int getDigitHeight() {
+            return 12;
+        }
+
+        @Override
+        public float measureDigits(char[] chars, int length) {
+            float width = 0;
+            for (int i = 0; i < length; i++) {
+                width += getCharWidth(chars[i]);
+            }
+            return width;
+        }
+
+        @Override
+        public int getSuffixWidth(String suffix) {
+            return suffix.length() * 8;
+        }
+
+        @Override
+        public int getSuffixHeight(String suffix) {
+            return 12;
+        }
+    };
+
+    private static IndicatorLayout layout(String pattern) {
+        IndicatorLayout layout = new IndicatorLayout();
+        layout.setPointerSize(40, 30);
+        layout.setSuffixMargin(2, 2);
+        layout.setFormat(CompiledFormat.compile(pattern));
+        return layout;
+    }
+
+    @Test
+    public void measure_placesNodesLeftToRight() {
+        IndicatorLayout layout = layout("HH:mm:ss");
+        int right = layout.measure(MEASURER, MEASURER, 5, 3);
+
+        List<NodeRect> nodes = layout.getNodes();
+        assertEquals(5, nodes.size());
+        assertEquals(5, nodes.get(0).bl);
+        assertEquals(45, nodes.get(1).bl);
+        assertEquals(57, nodes.get(2).bl);
+        assertEquals(3, nodes.get(2).bt);
+        assertEquals(5 + 40 * 3 + 12 * 2, right);
+        assertEquals(30, layout.getContentHeight(MEASURER));
+    }
+
+    @Test
+    public void update_reportsOnlyChangedCells() {
+        IndicatorLayout layout = layout("HH:mm:ss");
+        DurationDecomposer decomposer = new DurationDecomposer();
+        int mask = -1;
+        layout.measure(MEASURER, MEASURER, 0, 0);
+        assertTrue(layout.update(decomposer, mask, 0, MEASURER, -1));
+
+        assertFalse(layout.update(decomposer, mask, 999, MEASURER, -1));
+
+        for (NodeRect rect : layout.getNodes()) {
+            rect.dirty = false;
+        }
+        assertTrue(layout.update(decomposer, mask, 1_000, MEASURER, -1));
+        NodeRect seconds = layout.getNodes().get(4);
+        assertTrue(seconds.dirty);
+        assertFalse(layout.getNodes().get(2).dirty);
+        //"01" 比 "00" 窄, 按实际宽度居中
+        assertEquals(seconds.bl + 12, seconds.tx);
+
+        layout.setFixedDigitWidth(true);
+        layout.measure(MEASURER, MEASURER, 0, 0);
+        assertEquals(seconds.bl + 10, seconds.tx);
+    }
+
+    @Test
+    public void update_transitionsOnlyWhenStarted() {
+        IndicatorLayout layout = layout("mm:ss");
+        DurationDecomposer decomposer = new DurationDecomposer();
+        layout.update(decomposer, -1, 0, MEASURER, -1);
+        NodeRect seconds = layout.getNodes().get(2);
+
+        layout.update(decomposer, -1, 1_000, MEASURER, 100);
+        assertEquals(100, seconds.transitionStart);
+        assertEquals("00", new String(seconds.prevChars, 0, seconds.prevLength));
+
+        //绑定新数据等跳变结束正在进行的过渡
+        layout.update(decomposer, -1, 30_000, MEASURER, -1);
+        assertEquals(-1, seconds.transitionStart);
+    }
+
+    @Test
+    public void update_requestsLayoutWhenDigitCellsOverflow() {
+        IndicatorLayout layout = layout("HH:mm");
+        layout.setDigitCells(true, 4);
+        DurationDecomposer decomposer = new DurationDecomposer();
+        TickScheduler scheduler = new TickScheduler(20);
+        scheduler.setNodes(layout.getNodes());
+        int mask = scheduler.getFieldMask();
+        layout.update(decomposer, mask, 0, MEASURER, -1);
+        layout.measure(MEASURER, MEASURER, 0, 0);
+
+        NodeRect hours = layout.getNodes().get(0);
+        assertEquals(2, hours.cells);
+        assertEquals(40 * 2 + 4, hours.br - hours.bl);
+
+        //负数多出一个负号
+        layout.update(decomposer, mask, -5 * 60 * 60 * 1000L, MEASURER, -1);
+        assertTrue(layout.needsLayout());
+        layout.measure(MEASURER, MEASURER, 0, 0);
+        assertFalse(layout.needsLayout());
+        assertEquals(3, hours.cells);
+    }
+
+    @Test
+    public void applyGeometry_matchesMeasure() {
+        IndicatorLayout precomputed = layout("HH:mm:ss");
+        precomputed.measure(MEASURER, MEASURER, 0, 0);
+        int[] geometry = precomputed.saveGeometry();
+
+        IndicatorLayout measured = layout("HH:mm:ss");
+        IndicatorLayout applied = layout("HH:mm:ss");
+        DurationDecomposer decomposer = new DurationDecomposer();
+        measured.update(decomposer, -1, 1_000, MEASURER, -1);
+        applied.update(decomposer, -1, 1_000, MEASURER, -1);
+        measured.measure(MEASURER, MEASURER, 5, 3);
+        assertTrue(applied.applyGeometry(geometry, MEASURER, 5, 3));
+
+        for (int i = 0; i < measured.getNodes().size(); i++) {
+            NodeRect expected = measured.getNodes().get(i);
+            NodeRect actual = applied.getNodes().get(i);
+            assertEquals(expected.bl, actual.bl);
+            assertEquals(expected.bt, actual.bt);
+            assertEquals(expected.br, actual.br);
+            assertEquals(expected.bb, actual.bb);
+            assertEquals(expected.tx, actual.tx);
+            assertEquals(expected.ty, actual.ty);
+        }
+
+        //格式不一致时需要重新测量
+        assertFalse(layout("mm:ss").applyGeometry(geometry, MEASURER, 0, 0));
+    }
+
+    @Test
+    public void applyGeometry_rejectsOverflowedCells() {
+        IndicatorLayout precomputed = layout("HH:mm");
+        precomputed.setDigitCells(true, 4);
+        precomputed.measure(MEASURER, MEASURER, 0, 0);
+        int[] geometry = precomputed.saveGeometry();
+
+        IndicatorLayout layout = layout("HH:mm");
+        layout.setDigitCells(true, 4);
+        DurationDecomposer decomposer = new DurationDecomposer();
+        layout.update(decomposer, -1, -5 * 60 * 60 * 1000L, MEASURER, -1);
+        assertFalse(layout.applyGeometry(geometry, MEASURER, 0, 0));
+    }
+
+    @Test
+    public void setFormat_reusesNodes() {
+        IndicatorLayout layout = layout("dd HH:mm:ss");
+        NodeRect first = layout.getNodes().get(0);
+
+        assertEquals(0, layout.setFormat(CompiledFormat.compile("mm:ss")));
+        assertSame(first, layout.getNodes().get(0));
+        assertEquals(0, layout.setFormat(CompiledFormat.compile("dd HH:mm:ss")));
+    }
+}
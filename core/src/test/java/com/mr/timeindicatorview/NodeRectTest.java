@@ -0,0 +1,140 @@
+package com.mr.timeindicatorview;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * 指针文字写入测试, 在开发机 JVM 上运行
+ */
+public class NodeRectTest {
+
+    private static NodeRect pointer(String format) {
+        NodeRect rect = new NodeRect();
+        rect.isPointer = true;
+        rect.format = format;
+        rect.field = TimeField.of(format);
+        return rect;
+    }
+
+    private static String text(NodeRect rect) {
+        return new String(rect.chars, 0, rect.length);
+    }
+
+    @Test
+    public void setTime_matchesLegacyFormatting() {
+        long time = 1954654564L;
+
+        NodeRect year = pointer(TimeField.FORMAT_YEAR);
+        NodeRect day = pointer(TimeField.FORMAT_DAY);
+        NodeRect hours = pointer(TimeField.FORMAT_HOURS);
+        NodeRect minute = pointer(TimeField.FORMAT_MINUTE);
+        NodeRect seconds = pointer(TimeField.FORMAT_SECONDS);
+        NodeRect millisecond = pointer(TimeField.FORMAT_MILLISECOND);
+
+        year.setTime(time);
+        day.setTime(time);
+        hours.setTime(time);
+        minute.setTime(time);
+        seconds.setTime(time);
+        millisecond.setTime(time);
+
+        assertEquals("0000", text(year));
+        assertEquals("22", text(day));
+        assertEquals("14", text(hours));
+        assertEquals("57", text(minute));
+        assertEquals("34", text(seconds));
+        assertEquals("564", text(millisecond));
+    }
+
+    @Test
+    public void setValue_padsAndOverflows() {
+        NodeRect rect = new NodeRect();
+
+        rect.setValue(7, 2);
+        assertEquals("07", text(rect));
+
+        rect.setValue(12345, 4);
+        assertEquals("12345", text(rect));
+
+        rect.setValue(-5, 2);
+        assertEquals("-05", text(rect));
+
+        rect.setValue(Integer.MIN_VALUE, 2);
+        assertEquals(String.valueOf(Integer.MIN_VALUE), text(rect));
+    }
+
+    @Test
+    public void setTime_reportsChangeOnlyWhenValueChanges() {
+        NodeRect minute = pointer(TimeField.FORMAT_MINUTE);
+
+        assertTrue(minute.setTime(0));
+        assertFalse(minute.setTime(20));
+        assertFalse(minute.setTime(59_999));
+        assertTrue(minute.setTime(60_000));
+        assertEquals("01", text(minute));
+    }
+
+    @Test
+    public void savePrevious_keepsOldTextForTransition() {
+        NodeRect second = pointer(TimeField.FORMAT_SECONDS);
+        second.setValue(59, 2);
+        second.savePrevious(100);
+        second.setValue(0, 2);
+
+        assertEquals("59", new String(second.prevChars, 0, second.prevLength));
+        assertEquals(59, second.prevValue);
+        assertEquals("00", text(second));
+        assertEquals(100, second.transitionStart);
+
+        second.reset(new FormatToken(TimeField.FORMAT_SECONDS, true));
+        assertEquals(-1, second.transitionStart);
+    }
+
+    @Test
+    public void setTime_doesNotAllocate() {
+        NodeRect[] rects = {pointer(TimeField.FORMAT_HOURS), pointer(TimeField.FORMAT_MINUTE)
+                , pointer(TimeField.FORMAT_SECONDS), pointer(TimeField.FORMAT_MILLISECOND)};
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return;
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        if (!threadBean.isThreadAllocatedMemorySupported()) return;
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        long threadId = Thread.currentThread().getId();
+
+        //预热
+        tick(rects, 0, 20_000);
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        tick(rects, 20_000, 100_000);
+        long after = threadBean.getThreadAllocatedBytes(threadId);
+
+        //统计接口本身可能带来极少量分配, 但不会随 tick 次数增长
+        assertTrue("allocated " + (after - before) + " bytes", after - before < 1024);
+    }
+
+    /**
+     * 与 TimeIndicatorView 刷新时的流程一致: 拆分时间后写入每个指针
+     */
+    private static void tick(NodeRect[] rects, int from, int to) {
+        int mask = 0;
+        for (NodeRect rect : rects) {
+            mask |= 1 << rect.field;
+        }
+        for (int i = from; i < to; i++) {
+            long time = i * 20L;
+            DECOMPOSER.decompose(time, mask, FIELDS);
+            for (NodeRect rect : rects) {
+                rect.setValue(FIELDS[rect.field], TimeField.digitsOf(rect.field));
+            }
+        }
+    }
+
+    private static final DurationDecomposer DECOMPOSER = new DurationDecomposer();
+
+    private static final int[] FIELDS = new int[TimeField.COUNT];
+}
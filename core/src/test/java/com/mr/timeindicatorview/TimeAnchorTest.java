@@ -0,0 +1,202 @@
+package com.mr.timeindicatorview;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 使用假时间源模拟长时间计时
+ */
+public class TimeAnchorTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    /**
+     * 与 TimeIndicatorView.DEF_MILLIS_IN_FUTURE 相同
+     */
+    private static final long FRAME_INTERVAL = 20;
+
+    private static class FakeTimeSource implements TimeSource {
+        long now;
+
+        @Override
+        public long now() {
+            return now;
+        }
+    }
+
+    private static List<NodeRect> nodes(String... formats) {
+        List<NodeRect> nodes = new ArrayList<>();
+        for (String format : formats) {
+            NodeRect rect = new NodeRect();
+            rect.isPointer = true;
+            rect.format = format;
+            rect.field = TimeField.of(format);
+            nodes.add(rect);
+        }
+        return nodes;
+    }
+
+    @Test
+    public void countUp_lateTicksDoNotAccumulate() {
+        FakeTimeSource source = new FakeTimeSource();
+        source.now = 5_000;
+
+        TimeAnchor anchor = new TimeAnchor(source);
+        anchor.reset(1234, false);
+        anchor.start();
+
+        List<NodeRect> nodes = nodes(TimeField.FORMAT_HOURS, TimeField.FORMAT_MINUTE
+                , TimeField.FORMAT_SECONDS);
+        TickScheduler scheduler = new TickScheduler(FRAME_INTERVAL);
+        scheduler.setNodes(nodes);
+
+        Random random = new Random(42);
+        long end = source.now + 10 * HOUR;
+        while (source.now < end) {
+            long time = anchor.currentTime();
+            assertEquals(1234 + source.now - 5_000, time);
+
+            //主线程繁忙, 每次刷新都可能晚到最多 300 毫秒
+            source.now += scheduler.nextDelay(time, false) + random.nextInt(300);
+        }
+
+        long time = anchor.currentTime();
+        for (NodeRect rect : nodes) {
+            rect.setTime(time);
+        }
+        assertEquals(TimeField.valueOf(TimeField.HOURS, 1234 + 10 * HOUR + (source.now - end))
+                , nodes.get(0).value);
+    }
+
+    @Test
+    public void countdown_landsOnEveryChange() {
+        FakeTimeSource source = new FakeTimeSource();
+
+        TimeAnchor anchor = new TimeAnchor(source);
+        anchor.reset(3 * HOUR, true);
+        anchor.start();
+
+        List<NodeRect> nodes = nodes(TimeField.FORMAT_MINUTE, TimeField.FORMAT_SECONDS);
+        TickScheduler scheduler = new TickScheduler(FRAME_INTERVAL);
+        scheduler.setNodes(nodes);
+
+        int ticks = 0;
+        long time = anchor.currentTime();
+        while (time > 0) {
+            for (NodeRect rect : nodes) {
+                rect.setTime(time);
+            }
+            source.now += scheduler.nextDelay(time, true);
+            time = anchor.currentTime();
+            ticks++;
+        }
+
+        //每秒只唤醒一次, 外加从整点开始的第一次
+        assertEquals(3 * 60 * 60 + 1, ticks);
+    }
+
+    @Test
+    public void changingTimeSource_keepsDisplayedTime() {
+        FakeTimeSource first = new FakeTimeSource();
+        first.now = 100;
+        TimeAnchor anchor = new TimeAnchor(first);
+        anchor.reset(0, false);
+        anchor.start();
+        first.now = 700;
+
+        FakeTimeSource second = new FakeTimeSource();
+        second.now = 1_000_000;
+        anchor.setTimeSource(second);
+        assertEquals(600, anchor.currentTime());
+
+        second.now += 50;
+        assertEquals(650, anchor.currentTime());
+    }
+
+    @Test
+    public void startAt_measuresFromTarget() {
+        FakeTimeSource source = new FakeTimeSource();
+        source.now = 10_000;
+        TimeAnchor anchor = new TimeAnchor(source);
+
+        anchor.startAt(13_500, true);
+        assertEquals(3_500, anchor.currentTime());
+        source.now += 500;
+        assertEquals(3_000, anchor.currentTime());
+
+        anchor.startAt(9_000, false);
+        assertEquals(1_500, anchor.currentTime());
+    }
+
+    @Test
+    public void restore_resumesAtElapsedPosition() {
+        FakeTimeSource source = new FakeTimeSource();
+        source.now = 5_000;
+        TimeAnchor anchor = new TimeAnchor(source);
+        anchor.reset(HOUR, true);
+        anchor.start();
+        source.now += 1_234;
+
+        long savedNow = source.now;
+        TimeAnchor restored = new TimeAnchor(source);
+        source.now += 800;
+        restored.restore(anchor.getStartTime(), anchor.isCountdown(),
+                TimeAnchor.rebase(anchor.getAnchorTime(), savedNow, 0, source.now, 800),
+                anchor.isRunning());
+        assertEquals(anchor.currentTime(), restored.currentTime());
+        assertEquals(HOUR - 2_034, restored.currentTime());
+    }
+
+    @Test
+    public void rebase_usesWallTimeWhenSourceWasReset() {
+        //保存时已计时 1234 毫秒, 重启后时间源从 100 开始, 墙上时间过去了 10 秒
+        long anchorTime = 5_000;
+        long savedNow = 6_234;
+        long rebased = TimeAnchor.rebase(anchorTime, savedNow, 1_000_000, 100, 1_010_000);
+
+        assertEquals(1_234 + 10_000, 100 - rebased);
+    }
+
+    @Test
+    public void wallClock_followsSourceWithOffset() {
+        long wall = 1_660_000_000_000L;
+        FakeTimeSource source = new FakeTimeSource();
+        source.now = 1_000;
+        TimeAnchor anchor = new TimeAnchor(source);
+        anchor.follow(wall);
+
+        assertTrue(anchor.isRunning());
+        assertFalse(anchor.isCountdown());
+        assertEquals(wall + 7_000, anchor.timeAt(7_000));
+
+        //系统时间被修改后用新的偏移重新对齐
+        anchor.follow(wall + HOUR);
+        assertEquals(wall + HOUR + 7_000, anchor.timeAt(7_000));
+    }
+
+    @Test
+    public void wallClock_resetLeavesWallTime() {
+        FakeTimeSource source = new FakeTimeSource();
+        source.now = 1_000;
+        TimeAnchor anchor = new TimeAnchor(source);
+        anchor.follow(1_660_000_000_000L);
+
+        //离开时钟模式后回到起始时间, 不会停在墙上时间
+        anchor.reset(0, false);
+        source.now = 2_000;
+        assertEquals(0, anchor.currentTime());
+        anchor.start();
+        source.now = 3_000;
+        assertEquals(1_000, anchor.currentTime());
+
+        //重新对齐后与之前的计时状态无关
+        anchor.reset(5_000, true);
+        anchor.follow(1_660_000_000_000L);
+        assertEquals(1_660_000_000_000L + 3_000, anchor.currentTime());
+    }
+}
@@ -0,0 +1,141 @@
+package com.mr.timeindicatorview;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * 时间拆分测试
+ */
+public class TimeDecomposerTest {
+
+    private static final int ALL_FIELDS = (1 << TimeField.COUNT) - 1;
+
+    @Test
+    public void duration_incrementalMatchesDirectArithmetic() {
+        DurationDecomposer decomposer = new DurationDecomposer();
+        int[] fields = new int[TimeField.COUNT];
+
+        Random random = new Random(7);
+        long time = 400L * 24 * 60 * 60 * 1000 - 5_000;
+        for (int i = 0; i < 200_000; i++) {
+            //大多数是小步前进或后退, 偶尔跳变
+            int step = random.nextInt(100);
+            if (step < 80) {
+                time += random.nextInt(40);
+            } else if (step < 95) {
+                time -= random.nextInt(1500);
+            } else {
+                time = Math.abs(random.nextLong() % (50L * 365 * 24 * 60 * 60 * 1000));
+            }
+
+            decomposer.decompose(time, ALL_FIELDS, fields);
+            for (int field = 0; field < TimeField.COUNT; field++) {
+                assertEquals("field " + field + " at " + time,
+                        TimeField.valueOf(field, time), fields[field]);
+            }
+        }
+    }
+
+    @Test
+    public void calendar_matchesJavaCalendar() {
+        String[] zones = {"UTC", "Asia/Shanghai", "America/New_York", "Asia/Kolkata"
+                , "Australia/Lord_Howe", "Europe/London"};
+        Random random = new Random(11);
+        int[] fields = new int[TimeField.COUNT];
+
+        for (String id : zones) {
+            TimeZone zone = TimeZone.getTimeZone(id);
+            CalendarDecomposer decomposer = new CalendarDecomposer(zone);
+            Calendar calendar = Calendar.getInstance(zone);
+
+            long time = 946684800000L; //2000-01-01
+            for (int i = 0; i < 20_000; i++) {
+                time += random.nextInt(4) == 0
+                        ? random.nextInt(7 * 24 * 60 * 60 * 1000) : random.nextInt(60_000);
+
+                decomposer.decompose(time, ALL_FIELDS, fields);
+                calendar.setTimeInMillis(time);
+
+                String at = id + " " + time;
+                assertEquals(at, calendar.get(Calendar.YEAR), fields[TimeField.YEAR]);
+                assertEquals(at, calendar.get(Calendar.MONTH) + 1, fields[TimeField.MONTH]);
+                assertEquals(at, calendar.get(Calendar.DAY_OF_MONTH), fields[TimeField.DAY]);
+                assertEquals(at, calendar.get(Calendar.HOUR_OF_DAY), fields[TimeField.HOURS]);
+                assertEquals(at, calendar.get(Calendar.MINUTE), fields[TimeField.MINUTE]);
+                assertEquals(at, calendar.get(Calendar.SECOND), fields[TimeField.SECONDS]);
+                assertEquals(at, calendar.get(Calendar.MILLISECOND), fields[TimeField.MILLISECOND]);
+            }
+        }
+    }
+
+    @Test
+    public void calendar_matchesJavaCalendarInEveryZone() {
+        String[] zones = {"Pacific/Kiritimati", "America/New_York", "Asia/Kolkata"
+                , "Australia/Lord_Howe", "Pacific/Pago_Pago"};
+        CalendarDecomposer[] decomposers = new CalendarDecomposer[zones.length];
+        Calendar[] calendars = new Calendar[zones.length];
+        for (int i = 0; i < zones.length; i++) {
+            TimeZone zone = TimeZone.getTimeZone(zones[i]);
+            decomposers[i] = new CalendarDecomposer(zone);
+            calendars[i] = Calendar.getInstance(zone);
+        }
+        int[] fields = new int[TimeField.COUNT];
+
+        //同一时刻依次拆分所有时区, 覆盖跨日和夏令时切换
+        long time = 1609459200000L; //2021-01-01
+        for (int step = 0; step < 5_000; step++) {
+            time += 37 * 60 * 1000 + 17;
+            for (int i = 0; i < zones.length; i++) {
+                decomposers[i].decompose(time, ALL_FIELDS, fields);
+                calendars[i].setTimeInMillis(time);
+
+                String at = zones[i] + " " + time;
+                assertEquals(at, calendars[i].get(Calendar.YEAR), fields[TimeField.YEAR]);
+                assertEquals(at, calendars[i].get(Calendar.MONTH) + 1, fields[TimeField.MONTH]);
+                assertEquals(at, calendars[i].get(Calendar.DAY_OF_MONTH), fields[TimeField.DAY]);
+                assertEquals(at, calendars[i].get(Calendar.HOUR_OF_DAY), fields[TimeField.HOURS]);
+                assertEquals(at, calendars[i].get(Calendar.MINUTE), fields[TimeField.MINUTE]);
+            }
+        }
+    }
+
+    @Test
+    public void zoneTransitions_probeFindsExactDstInstants() {
+        ZoneTransitions transitions = ZoneTransitions.probe(
+                TimeZone.getTimeZone("America/New_York"), 1609459200000L);
+
+        //2021-03-14 07:00 UTC 和 2021-11-07 06:00 UTC
+        assertEquals(2, transitions.transitionCount());
+        assertEquals(1615705200000L, transitions.startOf(1));
+        assertEquals(1636264800000L, transitions.startOf(2));
+        assertEquals(-4 * 60 * 60 * 1000, transitions.offsetOf(transitions.indexOf(1615705200000L)));
+        assertEquals(-5 * 60 * 60 * 1000, transitions.offsetOf(transitions.indexOf(1615705199999L)));
+    }
+
+    @Test
+    public void calendar_delayLandsOnNextChange() {
+        TimeZone zone = TimeZone.getTimeZone("America/New_York");
+        CalendarDecomposer decomposer = new CalendarDecomposer(zone);
+        int mask = (1 << TimeField.DAY) | (1 << TimeField.HOURS);
+        int[] before = new int[TimeField.COUNT];
+        int[] after = new int[TimeField.COUNT];
+
+        //跨过2021-03-14的夏令时切换
+        long time = 1615680000000L;
+        for (int i = 0; i < 100; i++) {
+            long delay = decomposer.delayToNextChange(time, mask, false);
+            decomposer.decompose(time + delay - 1, mask, before);
+            decomposer.decompose(time + delay, mask, after);
+
+            assertTrue(before[TimeField.HOURS] != after[TimeField.HOURS]
+                    || before[TimeField.DAY] != after[TimeField.DAY]
+                    || delay <= 15 * 60 * 1000);
+            time += delay;
+        }
+    }
+}